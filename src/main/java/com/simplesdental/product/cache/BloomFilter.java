@@ -0,0 +1,67 @@
+package com.simplesdental.product.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of {@code long} values: {@link #mightContain} never answers {@code false} for an added value,
+ * and answers {@code true} for a value that was not added with roughly the false positive rate it was sized for.
+ * Adds and reads are thread safe and lock-free.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = hashCount;
+    }
+
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        var n = Math.max(expectedInsertions, 1);
+        var bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        var bitCount = Math.min(Math.max(bits, 64), (long) Integer.MAX_VALUE * 64);
+        var hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    void add(long value) {
+        var hash1 = mix(value);
+        var hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            var bit = index(hash1 + i * hash2);
+            var mask = 1L << bit;
+            var word = (int) (bit >>> 6);
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(long value) {
+        var hash1 = mix(value);
+        var hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            var bit = index(hash1 + i * hash2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(long hash) {
+        return (hash & Long.MAX_VALUE) % bitCount;
+    }
+
+    // SplitMix64 finalizer: spreads sequential ids over the whole range.
+    private static long mix(long value) {
+        var z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
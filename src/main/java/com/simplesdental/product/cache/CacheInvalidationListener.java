@@ -0,0 +1,38 @@
+package com.simplesdental.product.cache;
+
+import com.simplesdental.product.logging.LoggerWrapper;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Applies invalidations published by other nodes to this node's L1.
+ */
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final RedisSerializer<CacheInvalidationMessage> serializer;
+    private final String nodeId;
+    private final LoggerWrapper logger = new LoggerWrapper(CacheInvalidationListener.class);
+
+    public CacheInvalidationListener(TwoLevelCacheManager cacheManager,
+                                     RedisSerializer<CacheInvalidationMessage> serializer, String nodeId) {
+        this.cacheManager = cacheManager;
+        this.serializer = serializer;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            var invalidation = serializer.deserialize(message.getBody());
+            if (invalidation == null || nodeId.equals(invalidation.origin())) {
+                return;
+            }
+
+            cacheManager.evictLocal(invalidation.cacheName(), invalidation.key());
+        } catch (Exception e) {
+            logger.warn("Could not apply cache invalidation: {}", e.getMessage());
+        }
+    }
+}
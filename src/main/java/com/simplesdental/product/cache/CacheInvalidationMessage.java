@@ -0,0 +1,11 @@
+package com.simplesdental.product.cache;
+
+/**
+ * Payload broadcast on the invalidation channel. A {@code null} key means the whole cache was cleared.
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+
+    public boolean isClear() {
+        return key == null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.simplesdental.product.cache;
+
+import com.simplesdental.product.logging.LoggerWrapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Publishes L1 invalidations to the other nodes over Redis pub/sub.
+ * Each node tags its messages with its own id so it can ignore them when they come back.
+ */
+public class CacheInvalidationPublisher {
+
+    private final RedisTemplate<String, CacheInvalidationMessage> redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final LoggerWrapper logger = new LoggerWrapper(CacheInvalidationPublisher.class);
+
+    public CacheInvalidationPublisher(RedisTemplate<String, CacheInvalidationMessage> redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, new CacheInvalidationMessage(nodeId, cacheName, key));
+        } catch (Exception e) {
+            // The write already reached Redis; other nodes fall back to the L1 TTL.
+            logger.warn("Could not publish invalidation for cache {} key {}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void publishAll(String cacheName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        var serializer = (RedisSerializer<CacheInvalidationMessage>) redisTemplate.getValueSerializer();
+        var rawChannel = channel.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (var key : keys) {
+                    connection.publish(rawChannel,
+                        serializer.serialize(new CacheInvalidationMessage(nodeId, cacheName, key)));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("Could not publish {} invalidations for cache {}: {}", keys.size(), cacheName, e.getMessage());
+        }
+    }
+}
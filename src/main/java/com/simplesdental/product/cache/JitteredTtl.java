@@ -0,0 +1,36 @@
+package com.simplesdental.product.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * Shortens each entry's TTL by a random share of up to {@code jitter}, so entries written together
+ * (after a deploy or a Redis flush) do not all expire, and reload, at the same moment.
+ * Cached nulls (lookups that found nothing) get the shorter {@code notFoundTtl}, jittered the same way.
+ */
+public class JitteredTtl implements RedisCacheWriter.TtlFunction {
+
+    private final Duration ttl;
+    private final Duration notFoundTtl;
+    private final double jitter;
+
+    public JitteredTtl(Duration ttl, Duration notFoundTtl, double jitter) {
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("TTL jitter must be in [0, 1): " + jitter);
+        }
+        this.ttl = ttl;
+        this.notFoundTtl = notFoundTtl;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        var ttl = value == null ? notFoundTtl : this.ttl;
+        if (jitter == 0 || ttl.isZero() || ttl.isNegative()) {
+            return ttl;
+        }
+        var millis = ttl.toMillis();
+        return Duration.ofMillis(millis - (long) (millis * jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.simplesdental.product.cache;
+
+import com.simplesdental.product.config.CacheNames;
+import com.simplesdental.product.model.Product;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and fills the products-by-id cache for many ids at once: the L1 first, then a single Redis MGET
+ * for the rest. Entries are the same ones {@code ProductService.findById} reads and writes, including the
+ * entries recording that an id does not exist.
+ */
+@Component
+public class ProductBatchCache {
+
+    private final CacheManager cacheManager;
+
+    public ProductBatchCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the cached ids: the product, or empty for an id cached as not existing. Misses are absent.
+     */
+    public Map<Long, Optional<Product>> getAll(Collection<Long> ids) {
+        var found = new HashMap<Long, Optional<Product>>();
+        var cache = cache();
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            var values = twoLevelCache.getAll(ids);
+            for (var id : ids) {
+                var value = values.get(TwoLevelCache.localKey(id));
+                if (value instanceof Product product) {
+                    found.put(id, Optional.of(product));
+                } else if (value instanceof NullValue) {
+                    found.put(id, Optional.empty());
+                }
+            }
+            return found;
+        }
+
+        for (var id : ids) {
+            var wrapper = cache.get(id);
+            if (wrapper != null) {
+                found.put(id, Optional.ofNullable((Product) wrapper.get()));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Caches the products just loaded and records the ids that were looked up but do not exist.
+     */
+    public void putAll(Collection<Product> products, Collection<Long> absentIds) {
+        if (products.isEmpty() && absentIds.isEmpty()) {
+            return;
+        }
+
+        var entries = new LinkedHashMap<Long, Product>();
+        products.forEach(product -> entries.put(product.getId(), product));
+        absentIds.forEach(id -> entries.put(id, null));
+
+        var cache = cache();
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.putAll(entries);
+        } else {
+            entries.forEach(cache::put);
+        }
+    }
+
+    // Reads and read-through fills need no deferring to commit, so they skip the transaction-aware decorator.
+    private Cache cache() {
+        var cache = Objects.requireNonNull(cacheManager.getCache(CacheNames.PRODUCTS));
+        return cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+}
@@ -0,0 +1,52 @@
+package com.simplesdental.product.cache;
+
+import com.simplesdental.product.config.CacheNames;
+import com.simplesdental.product.outbox.OutboxWriter;
+import java.util.Collection;
+import java.util.Objects;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts products from every cache that holds them (by id and by code).
+ * Evictions are written to the outbox in the caller's transaction and carried out by the outbox relay once
+ * it commits, so a rolled back change evicts nothing and the write path never waits on Redis.
+ */
+@Component
+public class ProductCacheEvictor {
+
+    // Past this many products a single clear is cheaper than relaying one eviction per key.
+    static final int MAX_INDIVIDUAL_EVICTIONS = 100;
+
+    private final OutboxWriter outboxWriter;
+
+    public ProductCacheEvictor(OutboxWriter outboxWriter) {
+        this.outboxWriter = outboxWriter;
+    }
+
+    public void evict(Long id, Integer code) {
+        outboxWriter.evict(CacheNames.PRODUCTS, id);
+        evictCode(code);
+    }
+
+    public void evictCode(Integer code) {
+        if (code != null) {
+            outboxWriter.evict(CacheNames.PRODUCTS_BY_CODE, code);
+        }
+    }
+
+    public void evictAll(Collection<ProductCacheKey> keys) {
+        if (keys.size() > MAX_INDIVIDUAL_EVICTIONS) {
+            clear();
+            return;
+        }
+
+        outboxWriter.evictAll(CacheNames.PRODUCTS, keys.stream().map(ProductCacheKey::id).toList());
+        outboxWriter.evictAll(CacheNames.PRODUCTS_BY_CODE,
+            keys.stream().map(ProductCacheKey::code).filter(Objects::nonNull).toList());
+    }
+
+    public void clear() {
+        outboxWriter.clear(CacheNames.PRODUCTS);
+        outboxWriter.clear(CacheNames.PRODUCTS_BY_CODE);
+    }
+}
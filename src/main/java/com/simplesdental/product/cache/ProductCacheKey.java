@@ -0,0 +1,6 @@
+package com.simplesdental.product.cache;
+
+/**
+ * The keys a product is cached under: its id and, when it has one, its code.
+ */
+public record ProductCacheKey(Long id, Integer code) {}
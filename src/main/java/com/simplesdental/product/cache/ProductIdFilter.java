@@ -0,0 +1,211 @@
+package com.simplesdental.product.cache;
+
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.logging.LoggerWrapper;
+import com.simplesdental.product.pagination.ChangeCursor;
+import com.simplesdental.product.repository.ProductChangeRepository;
+import com.simplesdental.product.repository.ProductRepository;
+import com.simplesdental.product.repository.projection.ProductChange;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter of the product ids that exist, so lookups of ids that never existed are answered without
+ * reading the cache or the database. Deleted ids stay in the filter and are answered by the not-found cache.
+ * The filter is loaded when the application starts and rebuilt every {@code app.cache.product-id-filter.refresh-interval}.
+ * Ids created on this node are added as soon as they are assigned. Ids created on other nodes arrive with their
+ * catalog event, which is best effort, and from the product change feed, which is read every
+ * {@code app.cache.product-id-filter.sync-interval}; the feed only moves past a transaction once every older one
+ * has ended, so a long write transaction holds it back.
+ * Until the filter is loaded, after a resync event until it is rebuilt, and whenever the feed has not been read
+ * up to date for {@code app.cache.product-id-filter.max-lag}, every id might exist.
+ * Only lookups consult the filter; writes read the database.
+ */
+@Component
+public class ProductIdFilter {
+
+    private static final int SYNC_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductChangeRepository productChangeRepository;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long maxLagNanos;
+    private final Object rebuilding = new Object();
+    private final LoggerWrapper logger = new LoggerWrapper(ProductIdFilter.class);
+
+    private volatile BloomFilter filter;
+    // When the filter last held every id committed before it, by System.nanoTime().
+    private volatile long syncedAt;
+    // Guarded by rebuilding: where the next sync reads the change feed from, and the horizon it last saw.
+    private ChangeCursor position;
+    private ChangeCursor horizon;
+    // Guarded by this: ids added while a rebuild is loading, replayed on the new filter.
+    private List<Long> pendingIds;
+    // Guarded by this: a rebuild that started before an invalidation must not install its filter.
+    private long invalidations;
+
+    public ProductIdFilter(ProductRepository productRepository,
+                           ProductChangeRepository productChangeRepository,
+                           @Value("${app.cache.product-id-filter.enabled:true}") boolean enabled,
+                           @Value("${app.cache.product-id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${app.cache.product-id-filter.max-lag:PT10S}") Duration maxLag) {
+        this.productRepository = productRepository;
+        this.productChangeRepository = productChangeRepository;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxLagNanos = maxLag.toNanos();
+    }
+
+    /**
+     * Returns {@code false} only for ids that certainly do not exist.
+     */
+    public boolean mightContain(Long id) {
+        var current = filter;
+        return current == null || id == null || isBehind() || current.mightContain(id);
+    }
+
+    private boolean isBehind() {
+        return System.nanoTime() - syncedAt > maxLagNanos;
+    }
+
+    /**
+     * Adds a new id. It is safe to add before the transaction commits: an id whose insert rolls back only
+     * costs a database lookup.
+     */
+    public synchronized void add(Long id) {
+        if (filter != null) {
+            filter.add(id);
+        }
+        if (pendingIds != null) {
+            pendingIds.add(id);
+        }
+    }
+
+    public void addAll(Collection<Long> ids) {
+        ids.forEach(this::add);
+    }
+
+    /**
+     * Stops answering until the next rebuild, for changes that add ids without listing them, such as imports.
+     */
+    public synchronized void invalidate() {
+        filter = null;
+        invalidations++;
+    }
+
+    public void onCatalogEvent(CatalogEvent event) {
+        if (event.entity() != CatalogEvent.Entity.PRODUCT) {
+            return;
+        }
+
+        if (event.type() == CatalogEvent.Type.CREATED) {
+            addAll(event.ids());
+        } else if (event.type() == CatalogEvent.Type.RESYNC) {
+            invalidate();
+            rebuild();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.cache.product-id-filter.refresh-interval:PT10M}",
+        fixedDelayString = "${app.cache.product-id-filter.refresh-interval:PT10M}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (rebuilding) {
+            long generation;
+            synchronized (this) {
+                pendingIds = new ArrayList<>();
+                generation = invalidations;
+            }
+
+            long started = System.nanoTime();
+            ProductChangeRepository.Horizon start;
+            BloomFilter fresh;
+            int loaded;
+            try {
+                // Read before the ids: every change the id query misses is after this position in the feed.
+                start = productChangeRepository.horizon();
+                var ids = productRepository.findAllIds();
+                loaded = ids.size();
+                // Sized for twice the current catalog, so ids added until the next rebuild keep the rate down.
+                fresh = BloomFilter.create(Math.max(ids.size() * 2L, 1024), falsePositiveRate);
+                ids.forEach(fresh::add);
+            } catch (Exception e) {
+                logger.error("Error loading product id filter: {}", e.getMessage());
+                synchronized (this) {
+                    pendingIds = null;
+                }
+                return;
+            }
+
+            synchronized (this) {
+                pendingIds.forEach(fresh::add);
+                pendingIds = null;
+                if (generation == invalidations) {
+                    position = start.position();
+                    horizon = start.position();
+                    syncedAt = started;
+                    filter = fresh;
+                }
+            }
+            logger.info("Product id filter loaded with {} ids", loaded);
+        }
+    }
+
+    /**
+     * Adds the ids written since the last sync, whichever node wrote them.
+     */
+    @Scheduled(initialDelayString = "${app.cache.product-id-filter.sync-interval:PT2S}",
+        fixedDelayString = "${app.cache.product-id-filter.sync-interval:PT2S}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (rebuilding) {
+            var current = filter;
+            if (current == null || position == null) {
+                return;
+            }
+
+            long started = System.nanoTime();
+            try {
+                var now = productChangeRepository.horizon();
+                List<ProductChange> changes;
+                do {
+                    changes = productChangeRepository.findAfter(position, SYNC_BATCH_SIZE);
+                    for (var change : changes) {
+                        if (change.type() == ProductChange.Type.UPSERT) {
+                            current.add(change.id());
+                        }
+                        position = change.position();
+                    }
+                } while (changes.size() == SYNC_BATCH_SIZE);
+
+                // A horizon that has not moved since the last sync is held by a transaction that is still running,
+                // which may be hiding newer commits: the filter stays as old as that horizon.
+                if (now.settled() || !now.position().equals(horizon)) {
+                    horizon = now.position();
+                    syncedAt = started;
+                }
+            } catch (Exception e) {
+                logger.error("Error syncing product id filter: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.simplesdental.product.cache;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+
+/**
+ * Batch access to a {@link RedisCache}: one MGET for reads, one pipeline of SETs for writes and one DEL for
+ * evictions. Single reads that need the remaining TTL pipeline GET with PTTL.
+ * Keys, values and TTLs follow the cache's own configuration, so entries are interchangeable with the
+ * ones written and read by the cache itself.
+ */
+class RedisBatchAccess implements RemoteBatchAccess {
+
+    // What RedisCache stores for a cached null.
+    private static final byte[] BINARY_NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
+    private final RedisConnectionFactory connectionFactory;
+    private final String cacheName;
+    private final RedisCacheConfiguration configuration;
+
+    RedisBatchAccess(RedisConnectionFactory connectionFactory, RedisCache cache) {
+        this.connectionFactory = connectionFactory;
+        this.cacheName = cache.getName();
+        this.configuration = cache.getCacheConfiguration();
+    }
+
+    @Override
+    public List<Object> getAll(List<String> keys) {
+        var rawKeys = keys.stream().map(this::serializeKey).toArray(byte[][]::new);
+        List<byte[]> rawValues;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            rawValues = connection.stringCommands().mGet(rawKeys);
+        }
+
+        var values = new ArrayList<Object>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            var rawValue = rawValues == null ? null : rawValues.get(i);
+            if (rawValue == null) {
+                values.add(null);
+            } else {
+                values.add(Arrays.equals(rawValue, BINARY_NULL_VALUE) ? NullValue.INSTANCE : deserializeValue(rawValue));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void putAll(Map<String, Object> entries) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                entries.forEach((key, value) -> connection.stringCommands().set(serializeKey(key),
+                    serializeValue(value), expirationFor(key, value), SetOption.upsert()));
+            } finally {
+                connection.closePipeline();
+            }
+        }
+    }
+
+    @Override
+    public void evictAll(List<String> keys) {
+        var rawKeys = keys.stream().map(this::serializeKey).toArray(byte[][]::new);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(rawKeys);
+        }
+    }
+
+    @Override
+    public Entry getWithTtl(String key) {
+        var rawKey = serializeKey(key);
+        List<Object> results;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                connection.stringCommands().get(rawKey);
+                connection.keyCommands().pTtl(rawKey);
+            } finally {
+                results = connection.closePipeline();
+            }
+        }
+
+        if (!(results.get(0) instanceof byte[] rawValue)) {
+            return null;
+        }
+        var value = Arrays.equals(rawValue, BINARY_NULL_VALUE) ? null : deserializeValue(rawValue);
+        // PTTL answers -1 for a key without expiry, and -2 if the key expired since the GET.
+        var millis = (Long) results.get(1);
+        return new Entry(value, millis == -1 ? null : Duration.ofMillis(Math.max(millis, 0)));
+    }
+
+    private byte[] serializeKey(String key) {
+        var cacheKey = configuration.usePrefix() ? configuration.getKeyPrefixFor(cacheName) + key : key;
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(cacheKey));
+    }
+
+    private byte[] serializeValue(Object value) {
+        if (value == null) {
+            return BINARY_NULL_VALUE;
+        }
+        return ByteUtils.getBytes(configuration.getValueSerializationPair().write(value));
+    }
+
+    private Object deserializeValue(byte[] value) {
+        return configuration.getValueSerializationPair().read(ByteBuffer.wrap(value));
+    }
+
+    private Expiration expirationFor(String key, Object value) {
+        var ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+        return ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+    }
+}
@@ -0,0 +1,69 @@
+package com.simplesdental.product.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.types.Expiration;
+
+/**
+ * {@link RemoteLoadLock} on a {@code SET NX PX} key next to the cache entry ({@code <entry key>::lock}).
+ * Each lock is tagged with a random token and only deleted while it still holds that token, so a lock whose
+ * lease ran out and was taken by another node is left alone.
+ */
+class RedisLoadLock implements RemoteLoadLock {
+
+    private static final byte[] RELEASE_SCRIPT = """
+        if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisConnectionFactory connectionFactory;
+    private final String cacheName;
+    private final RedisCacheConfiguration configuration;
+    private final Map<String, byte[]> tokens = new ConcurrentHashMap<>();
+
+    RedisLoadLock(RedisConnectionFactory connectionFactory, RedisCache cache) {
+        this.connectionFactory = connectionFactory;
+        this.cacheName = cache.getName();
+        this.configuration = cache.getCacheConfiguration();
+    }
+
+    @Override
+    public boolean tryLock(String key, Duration lease) {
+        var token = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        Boolean acquired;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            acquired = connection.stringCommands().set(lockKey(key), token, Expiration.from(lease), SetOption.ifAbsent());
+        }
+
+        if (Boolean.TRUE.equals(acquired)) {
+            tokens.put(key, token);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void unlock(String key) {
+        var token = tokens.remove(key);
+        if (token == null) {
+            return;
+        }
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.scriptingCommands().eval(RELEASE_SCRIPT, ReturnType.INTEGER, 1, lockKey(key), token);
+        }
+    }
+
+    private byte[] lockKey(String key) {
+        var cacheKey = configuration.usePrefix() ? configuration.getKeyPrefixFor(cacheName) + key : key;
+        return (cacheKey + "::lock").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,30 @@
+package com.simplesdental.product.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads, writes and evicts many entries of a remote cache in one round trip.
+ */
+public interface RemoteBatchAccess {
+
+    /**
+     * Returns the cached values in the order of {@code keys}, with {@code null} for each miss and
+     * {@link org.springframework.cache.support.NullValue#INSTANCE} for each key cached as not existing.
+     */
+    List<Object> getAll(List<String> keys);
+
+    void putAll(Map<String, Object> entries);
+
+    void evictAll(List<String> keys);
+
+    /**
+     * Returns the cached value of the key together with its remaining TTL, or {@code null} on a miss.
+     * The TTL is {@code null} for entries that never expire.
+     */
+    Entry getWithTtl(String key);
+
+    record Entry(Object value, Duration timeToLive) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.simplesdental.product.cache;
+
+import java.time.Duration;
+
+/**
+ * Lets one node at a time load a key of a remote cache.
+ */
+public interface RemoteLoadLock {
+
+    /**
+     * Takes the lock for the key without waiting; it is released on its own once {@code lease} has passed.
+     */
+    boolean tryLock(String key, Duration lease);
+
+    /**
+     * Releases the lock for the key if this node still holds it.
+     */
+    void unlock(String key);
+}
@@ -0,0 +1,16 @@
+package com.simplesdental.product.cache;
+
+import java.time.Duration;
+
+/**
+ * How a {@link TwoLevelCache} keeps a missing or expiring key from sending every concurrent reader to the loader.
+ * Loads of the same key on one node are always coalesced. On top of that, {@code lockEnabled} coordinates
+ * loads across nodes with a Redis lock held for at most {@code lockLease}, for which other nodes wait up to
+ * {@code lockWait} before loading anyway. A positive {@code earlyRefreshBeta} refreshes entries shortly before
+ * they expire, with a probability that grows as expiry nears and with how long loads take (XFetch);
+ * {@code 1.0} is the usual setting, higher values refresh earlier.
+ */
+public record StampedeProtection(boolean lockEnabled, Duration lockLease, Duration lockWait, double earlyRefreshBeta) {
+
+    public static final StampedeProtection NONE = new StampedeProtection(false, Duration.ZERO, Duration.ZERO, 0);
+}
@@ -0,0 +1,362 @@
+package com.simplesdental.product.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+
+/**
+ * Cache backed by a bounded in-process L1 in front of a shared L2 (Redis).
+ * Reads hit the L1 first and fill it from the L2 on a miss. Writes and evictions go to both levels
+ * and are broadcast so the other nodes drop their L1 copy.
+ * L1 entries are shared object references, so cached values must be treated as immutable.
+ * {@link #getAll}, {@link #putAll} and {@link #evictAll} serve many keys with a single L2 round trip when a
+ * {@link RemoteBatchAccess} is available, and fall back to one L2 call per key otherwise.
+ * {@link #get(Object, Callable)} ({@code @Cacheable(sync = true)}) is guarded against stampedes as configured by
+ * {@link StampedeProtection}. A {@code null} it loads is cached like any value, under the L2's TTL for nulls, so
+ * repeated lookups of something that does not exist are answered without calling the loader.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final long LOCK_POLL_MILLIS = 20;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationPublisher publisher;
+    private final RemoteBatchAccess remoteBatch;
+    private final RemoteLoadLock loadLock;
+    private final StampedeProtection stampedeProtection;
+    private final Map<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+    // Moving average of how long the loader takes, the "delta" of the early refresh.
+    private volatile double averageLoadMillis;
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local, Cache remote,
+                         CacheInvalidationPublisher publisher) {
+        this(name, local, remote, publisher, null);
+    }
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local, Cache remote,
+                         CacheInvalidationPublisher publisher, RemoteBatchAccess remoteBatch) {
+        this(name, local, remote, publisher, remoteBatch, null, StampedeProtection.NONE);
+    }
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local, Cache remote,
+                         CacheInvalidationPublisher publisher, RemoteBatchAccess remoteBatch, RemoteLoadLock loadLock,
+                         StampedeProtection stampedeProtection) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+        this.remoteBatch = remoteBatch;
+        this.loadLock = loadLock;
+        this.stampedeProtection = stampedeProtection;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        var localKey = localKey(key);
+        var value = local.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+
+        var wrapper = remote.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+
+        value = toStoreValue(wrapper.get());
+        local.put(localKey, value);
+        return value;
+    }
+
+    /**
+     * Returns the cached value or loads it. Concurrent misses of a key on this node share a single load; the
+     * L2 read, the cross-node lock and the early refresh all happen inside it.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        var localKey = localKey(key);
+        var value = local.getIfPresent(localKey);
+        if (value == null) {
+            value = loadOnce(localKey, () -> readThrough(key, localKey, valueLoader));
+        }
+        return (T) fromStoreValue(value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(localKey(key), toStoreValue(value));
+        publisher.publish(name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        var existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            local.put(localKey(key), toStoreValue(value));
+            publisher.publish(name, localKey(key));
+        } else {
+            local.put(localKey(key), toStoreValue(existing.get()));
+        }
+        return existing;
+    }
+
+    /**
+     * Returns the cached values of the given keys, keyed by their string form; misses are absent, and keys cached
+     * as not existing map to {@link NullValue#INSTANCE}.
+     * Keys missing from the L1 are read from the L2 together and copied into the L1.
+     */
+    public Map<String, Object> getAll(Collection<?> keys) {
+        var found = new HashMap<String, Object>();
+        var remoteKeys = new ArrayList<String>();
+        for (var key : keys) {
+            var localKey = localKey(key);
+            var value = local.getIfPresent(localKey);
+            if (value != null) {
+                found.put(localKey, value);
+            } else {
+                remoteKeys.add(localKey);
+            }
+        }
+
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+
+        var remoteValues = readRemote(remoteKeys);
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            var value = remoteValues.get(i);
+            if (value != null) {
+                local.put(remoteKeys.get(i), value);
+                found.put(remoteKeys.get(i), value);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Stores values just read from the source of truth, as a read-through cache would one key at a time; a
+     * {@code null} value records that the key does not exist.
+     * Unlike {@link #put}, no invalidation is broadcast: the write that made other nodes' copies stale
+     * already broadcast its own.
+     */
+    public void putAll(Map<?, ?> entries) {
+        var remoteEntries = new LinkedHashMap<String, Object>();
+        entries.forEach((key, value) -> remoteEntries.put(localKey(key), value));
+
+        if (remoteBatch != null) {
+            remoteBatch.putAll(remoteEntries);
+        } else {
+            remoteEntries.forEach(remote::put);
+        }
+        remoteEntries.forEach((key, value) -> local.put(key, toStoreValue(value)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(localKey(key));
+        publisher.publish(name, localKey(key));
+    }
+
+    /**
+     * Evicts many keys from both levels; the other nodes get their invalidations in one pipelined round trip.
+     */
+    public void evictAll(Collection<?> keys) {
+        var localKeys = keys.stream().map(TwoLevelCache::localKey).distinct().toList();
+        if (remoteBatch != null) {
+            remoteBatch.evictAll(localKeys);
+        } else {
+            keys.forEach(remote::evict);
+        }
+        local.invalidateAll(localKeys);
+        publisher.publishAll(name, localKeys);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        var evicted = remote.evictIfPresent(key);
+        evictLocal(localKey(key));
+        publisher.publish(name, localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        publisher.publish(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        var invalidated = remote.invalidate();
+        clearLocal();
+        publisher.publish(name, null);
+        return invalidated;
+    }
+
+    private Object loadOnce(String localKey, Supplier<Object> load) {
+        var flight = new CompletableFuture<Object>();
+        var inFlight = loads.putIfAbsent(localKey, flight);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            var value = load.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(localKey, flight);
+        }
+    }
+
+    private Object readThrough(Object key, String localKey, Callable<?> valueLoader) {
+        var cached = readRemoteEntry(key, localKey);
+        if (cached != null && !shouldRefreshEarly(cached.timeToLive())) {
+            return cacheLocally(localKey, cached.value());
+        }
+        if (loadLock == null) {
+            return load(key, localKey, valueLoader);
+        }
+
+        if (loadLock.tryLock(localKey, stampedeProtection.lockLease())) {
+            try {
+                return load(key, localKey, valueLoader);
+            } finally {
+                loadLock.unlock(localKey);
+            }
+        }
+        // Another node is loading it: keep serving the entry it is refreshing, or wait for the one it is filling.
+        if (cached != null) {
+            return cacheLocally(localKey, cached.value());
+        }
+        var filled = awaitRemoteEntry(key, localKey);
+        return filled != null ? cacheLocally(localKey, filled.value()) : load(key, localKey, valueLoader);
+    }
+
+    private Object load(Object key, String localKey, Callable<?> valueLoader) {
+        var start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        recordLoadTime(System.nanoTime() - start);
+
+        // Read-through like putAll: nothing changed, so the other nodes are not told to drop their copy.
+        remote.put(key, value);
+        return cacheLocally(localKey, value);
+    }
+
+    private Object cacheLocally(String localKey, Object value) {
+        var storeValue = toStoreValue(value);
+        local.put(localKey, storeValue);
+        return storeValue;
+    }
+
+    private RemoteBatchAccess.Entry readRemoteEntry(Object key, String localKey) {
+        if (remoteBatch != null && stampedeProtection.earlyRefreshBeta() > 0) {
+            return remoteBatch.getWithTtl(localKey);
+        }
+
+        var wrapper = remote.get(key);
+        return wrapper == null ? null : new RemoteBatchAccess.Entry(wrapper.get(), null);
+    }
+
+    private RemoteBatchAccess.Entry awaitRemoteEntry(Object key, String localKey) {
+        var deadline = System.nanoTime() + stampedeProtection.lockWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            var wrapper = remote.get(key);
+            if (wrapper != null) {
+                return new RemoteBatchAccess.Entry(wrapper.get(), null);
+            }
+        }
+        return null;
+    }
+
+    // XFetch: refresh once now + delta * beta * -ln(random) reaches the expiry.
+    private boolean shouldRefreshEarly(Duration timeToLive) {
+        var beta = stampedeProtection.earlyRefreshBeta();
+        if (timeToLive == null || beta <= 0) {
+            return false;
+        }
+        var random = 1 - ThreadLocalRandom.current().nextDouble();
+        return averageLoadMillis * beta * -Math.log(random) >= timeToLive.toMillis();
+    }
+
+    private void recordLoadTime(long nanos) {
+        var millis = nanos / 1_000_000.0;
+        var average = averageLoadMillis;
+        averageLoadMillis = average == 0 ? millis : average * 0.8 + millis * 0.2;
+    }
+
+    private List<Object> readRemote(List<String> keys) {
+        if (remoteBatch != null) {
+            return remoteBatch.getAll(keys);
+        }
+
+        var values = new ArrayList<Object>(keys.size());
+        for (var key : keys) {
+            var wrapper = remote.get(key);
+            values.add(wrapper == null ? null : toStoreValue(wrapper.get()));
+        }
+        return values;
+    }
+
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    // Keys cross the wire as strings, so the L1 uses the same form to match remote invalidations.
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,89 @@
+package com.simplesdental.product.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+/**
+ * Builds a {@link TwoLevelCache} for every cache of the wrapped {@link RedisCacheManager},
+ * so the Redis TTLs and serialization stay configured in one place.
+ * Redis-backed caches also get batch access (MGET and pipelined SET) over the same connection factory,
+ * and a Redis load lock when {@link StampedeProtection#lockEnabled()}.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final RedisCacheManager remoteCacheManager;
+    private final RedisConnectionFactory connectionFactory;
+    private final Caffeine<Object, Object> localSpec;
+    private final CacheInvalidationPublisher publisher;
+    private final StampedeProtection stampedeProtection;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager remoteCacheManager, RedisConnectionFactory connectionFactory,
+                                Caffeine<Object, Object> localSpec, CacheInvalidationPublisher publisher) {
+        this(remoteCacheManager, connectionFactory, localSpec, publisher, StampedeProtection.NONE);
+    }
+
+    public TwoLevelCacheManager(RedisCacheManager remoteCacheManager, RedisConnectionFactory connectionFactory,
+                                Caffeine<Object, Object> localSpec, CacheInvalidationPublisher publisher,
+                                StampedeProtection stampedeProtection) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.connectionFactory = connectionFactory;
+        this.localSpec = localSpec;
+        this.publisher = publisher;
+        this.stampedeProtection = stampedeProtection;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        remoteCacheManager.initializeCaches();
+        return remoteCacheManager.getCacheNames().stream()
+            .map(remoteCacheManager::getCache)
+            .map(this::twoLevel)
+            .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        var remote = remoteCacheManager.getCache(name);
+        return remote == null ? null : twoLevel(remote);
+    }
+
+    /**
+     * Drops a key (or, with a {@code null} key, everything) from this node's L1 only.
+     */
+    public void evictLocal(String cacheName, String key) {
+        var cache = caches.get(cacheName);
+        if (cache == null) {
+            return;
+        }
+
+        if (key == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(key);
+        }
+    }
+
+    private TwoLevelCache twoLevel(Cache remote) {
+        return caches.computeIfAbsent(remote.getName(),
+            name -> new TwoLevelCache(name, localSpec.<String, Object>build(), remote, publisher, batchAccess(remote),
+                loadLock(remote), stampedeProtection));
+    }
+
+    private RemoteBatchAccess batchAccess(Cache remote) {
+        return remote instanceof RedisCache redisCache ? new RedisBatchAccess(connectionFactory, redisCache) : null;
+    }
+
+    private RemoteLoadLock loadLock(Cache remote) {
+        return stampedeProtection.lockEnabled() && remote instanceof RedisCache redisCache
+            ? new RedisLoadLock(connectionFactory, redisCache)
+            : null;
+    }
+}
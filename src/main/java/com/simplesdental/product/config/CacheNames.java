@@ -0,0 +1,12 @@
+package com.simplesdental.product.config;
+
+public final class CacheNames {
+
+    public static final String USER_CONTEXT = "userContext";
+    public static final String USER_STATE = "userState";
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_CODE = "productsByCode";
+
+    private CacheNames() {
+    }
+}
@@ -4,8 +4,18 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.simplesdental.product.cache.CacheInvalidationListener;
+import com.simplesdental.product.cache.CacheInvalidationMessage;
+import com.simplesdental.product.cache.CacheInvalidationPublisher;
+import com.simplesdental.product.cache.JitteredTtl;
+import com.simplesdental.product.cache.ProductIdFilter;
+import com.simplesdental.product.cache.StampedeProtection;
+import com.simplesdental.product.cache.TwoLevelCacheManager;
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.events.CatalogEventListener;
+import com.simplesdental.product.events.CatalogEventStream;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,11 +25,16 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableCaching
@@ -31,6 +46,48 @@ public class RedisConfig {
     @Value("${spring.redis.port:6379}")
     private int redisPort;
 
+    @Value("${app.cache.ttl.default:30m}")
+    private Duration defaultTtl;
+
+    @Value("${app.cache.ttl.user-context:30m}")
+    private Duration userContextTtl;
+
+    @Value("${app.cache.ttl.user-state:1m}")
+    private Duration userStateTtl;
+
+    @Value("${app.cache.ttl.products:10m}")
+    private Duration productsTtl;
+
+    @Value("${app.cache.ttl.not-found:30s}")
+    private Duration notFoundTtl;
+
+    @Value("${app.cache.ttl.jitter:0.1}")
+    private double ttlJitter;
+
+    @Value("${app.cache.stampede.lock-enabled:false}")
+    private boolean stampedeLockEnabled;
+
+    @Value("${app.cache.stampede.lock-lease:10s}")
+    private Duration stampedeLockLease;
+
+    @Value("${app.cache.stampede.lock-wait:1s}")
+    private Duration stampedeLockWait;
+
+    @Value("${app.cache.stampede.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+
+    @Value("${app.cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${app.cache.local.ttl:1m}")
+    private Duration localTtl;
+
+    @Value("${app.cache.invalidation-channel:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Value("${app.stream.channel:catalog-events}")
+    private String catalogEventChannel;
+
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(redisHost, redisPort);
@@ -51,15 +108,101 @@ public class RedisConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, CacheInvalidationMessage> cacheInvalidationTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, CacheInvalidationMessage> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(cacheInvalidationSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(
+            RedisTemplate<String, CacheInvalidationMessage> cacheInvalidationTemplate) {
+        return new CacheInvalidationPublisher(cacheInvalidationTemplate, invalidationChannel);
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             CacheInvalidationPublisher cacheInvalidationPublisher) {
         RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30))
+                .entryTtl(new JitteredTtl(defaultTtl, notFoundTtl, ttlJitter))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(cacheConfiguration)
+                .withCacheConfiguration(CacheNames.USER_CONTEXT, cacheConfiguration.entryTtl(new JitteredTtl(userContextTtl, notFoundTtl, ttlJitter)))
+                .withCacheConfiguration(CacheNames.USER_STATE, cacheConfiguration.entryTtl(new JitteredTtl(userStateTtl, notFoundTtl, ttlJitter)))
+                .withCacheConfiguration(CacheNames.PRODUCTS, cacheConfiguration.entryTtl(new JitteredTtl(productsTtl, notFoundTtl, ttlJitter)))
+                .withCacheConfiguration(CacheNames.PRODUCTS_BY_CODE, cacheConfiguration.entryTtl(new JitteredTtl(productsTtl, notFoundTtl, ttlJitter)))
                 .build();
+
+        // The L1 TTL bounds staleness on a node that misses an invalidation message.
+        Caffeine<Object, Object> localSpec = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl);
+
+        // Hot keys are loaded once per node (and, with the lock, once across nodes) when they expire.
+        StampedeProtection stampedeProtection = new StampedeProtection(stampedeLockEnabled, stampedeLockLease,
+                stampedeLockWait, earlyRefreshBeta);
+
+        // transactionAware defers puts and evictions issued inside a transaction until it commits.
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager, connectionFactory, localSpec,
+                cacheInvalidationPublisher, stampedeProtection);
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            CacheInvalidationPublisher cacheInvalidationPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                new CacheInvalidationListener(cacheManager, cacheInvalidationSerializer(), cacheInvalidationPublisher.nodeId()),
+                new ChannelTopic(invalidationChannel));
+        return container;
+    }
+
+    @Bean
+    public RedisTemplate<String, CatalogEvent> catalogEventTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, CatalogEvent> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(catalogEventSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer catalogEventListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       CatalogEventStream catalogEventStream,
+                                                                       ProductIdFilter productIdFilter) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // The default executor starts a thread per message, so listeners would see events in any order. One thread
+        // keeps Redis' delivery order, which the stream's replay relies on being the same on every node.
+        container.setTaskExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "catalog-events");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        container.addMessageListener(new CatalogEventListener(catalogEventStream::dispatch, catalogEventSerializer()),
+                new ChannelTopic(catalogEventChannel));
+        container.addMessageListener(new CatalogEventListener(productIdFilter::onCatalogEvent, catalogEventSerializer()),
+                new ChannelTopic(catalogEventChannel));
+        return container;
+    }
+
+    private RedisSerializer<CatalogEvent> catalogEventSerializer() {
+        return new Jackson2JsonRedisSerializer<>(CatalogEvent.class);
+    }
+
+    private RedisSerializer<CacheInvalidationMessage> cacheInvalidationSerializer() {
+        return new Jackson2JsonRedisSerializer<>(CacheInvalidationMessage.class);
     }
 
     @Bean
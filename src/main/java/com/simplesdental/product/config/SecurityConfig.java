@@ -1,7 +1,11 @@
 package com.simplesdental.product.config;
 
+import com.simplesdental.product.security.BoundedPasswordEncoder;
 import com.simplesdental.product.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,12 +35,19 @@ public class SecurityConfig {
   protected SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
     http.csrf(AbstractHttpConfigurer::disable)
         .authorizeHttpRequests(auth -> {
+          // Streamed responses finish in an async dispatch that carries no token; the request was already authorized
+          auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
+
           // Product endpoints
           auth.requestMatchers("/api/v1/products/**", "/api/v2/products/**").authenticated();
 
           // Category endpoints
           auth.requestMatchers("/api/categories/**").authenticated();
 
+          // Actuator: health is public, metrics are for administrators
+          auth.requestMatchers("/actuator/health").permitAll();
+          auth.requestMatchers("/actuator/**").hasRole("ADMIN");
+
           // All other requests need authentication
           auth.anyRequest().permitAll();
         })
@@ -46,10 +57,10 @@ public class SecurityConfig {
   }
 
   @Bean
-  public DaoAuthenticationProvider authenticationProvider() {
+  public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
     authProvider.setUserDetailsService(userDetailsService);
-    authProvider.setPasswordEncoder(passwordEncoder());
+    authProvider.setPasswordEncoder(passwordEncoder);
     return authProvider;
   }
 
@@ -58,8 +69,12 @@ public class SecurityConfig {
     return authConfig.getAuthenticationManager();
   }
 
+  // BCrypt runs on its own bounded pool so login bursts cannot occupy every request thread.
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      @Value("${app.security.password-hashing.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int poolSize,
+      @Value("${app.security.password-hashing.queue-capacity:50}") int queueCapacity,
+      MeterRegistry meterRegistry) {
+    return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity, meterRegistry);
   }
 }
@@ -2,6 +2,8 @@ package com.simplesdental.product.controller;
 
 import com.simplesdental.product.logging.LoggerWrapper;
 import com.simplesdental.product.model.Category;
+import com.simplesdental.product.model.ETags;
+import com.simplesdental.product.pagination.SliceResponse;
 import com.simplesdental.product.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -52,6 +54,32 @@ public class CategoryController {
         }
     }
 
+    @GetMapping(params = "withTotal=false")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get categories without total count",
+        description = "Selected with `withTotal=false`. Returns a slice computed by fetching one extra row, so the "
+            + "listing costs a single query. Set `approximateTotal=true` to include the planner's row estimate.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Categories retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = SliceResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content)
+    })
+    public ResponseEntity<SliceResponse<Category>> getCategoriesSlice(
+            @PageableDefault(sort = {"name"}, direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean approximateTotal) {
+        logger.info("Received request to get categories slice - page: {}, size: {}, sort: {}",
+            pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        try {
+            var categories = categoryService.findAllSlice(pageable);
+            logger.info("Successfully returned {} categories", categories.getNumberOfElements());
+            return ResponseEntity.ok(SliceResponse.of(categories, approximateTotal ? categoryService.estimateCount() : null));
+        } catch (Exception e) {
+            logger.error("Error getting categories slice: {}", e.getMessage());
+            throw e;
+        }
+    }
+
     @Operation(
         summary = "Get category by ID",
         description = "Retrieves a category by its ID."
@@ -60,6 +88,8 @@ public class CategoryController {
         @ApiResponse(responseCode = "200", description = "Category retrieved successfully",
             content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = Category.class))),
+        @ApiResponse(responseCode = "304", description = "Category unchanged since the ETag in If-None-Match",
+            content = @Content),
         @ApiResponse(responseCode = "404", description = "Category not found", content = @Content)
     })
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
@@ -69,7 +99,8 @@ public class CategoryController {
         try {
             Category category = categoryService.findById(id);
             logger.info("Successfully returned category with id: {}", id);
-            return ResponseEntity.ok(category);
+            // Spring answers a matching If-None-Match with 304 before serializing the body.
+            return ResponseEntity.ok().eTag(ETags.of(category)).body(category);
         } catch (Exception e) {
             logger.error("Error getting category with id {}: {}", id, e.getMessage());
             throw e;
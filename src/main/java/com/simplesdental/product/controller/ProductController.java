@@ -4,6 +4,8 @@ import com.simplesdental.product.controller.dto.product.v1.CreateProductDTO;
 import com.simplesdental.product.controller.dto.product.v1.UpdateProductDTO;
 import com.simplesdental.product.logging.LoggerWrapper;
 import com.simplesdental.product.model.Product;
+import com.simplesdental.product.pagination.SliceResponse;
+import com.simplesdental.product.repository.projection.ProductSummary;
 import com.simplesdental.product.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,13 +15,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -34,7 +34,8 @@ public class ProductController {
 
     @Operation(
         summary = "Get all products",
-        description = "Retrieves a paginated list of products. For each product, if a category exists it is eagerly initialized."
+        description = "Retrieves a paginated list of products with their category, read as a projection of the listed "
+            + "columns. Items keep the v1 shape: the numeric code and the category as a nested object."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Products retrieved successfully",
@@ -43,17 +44,11 @@ public class ProductController {
         @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content)
     })
     @GetMapping
-    @Transactional
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public ResponseEntity<Page<Product>> getAllProducts(Pageable pageable) {
+    public ResponseEntity<Page<ProductSummary>> getAllProducts(Pageable pageable) {
         logger.info("Received request to get all products");
         try {
-            Page<Product> products = productService.findAll(pageable);
-            products.forEach(product -> {
-                if (product.getCategory() != null) {
-                    Hibernate.initialize(product.getCategory());
-                }
-            });
+            Page<ProductSummary> products = productService.findAll(pageable);
             logger.info("Successfully returned {} products", products.getTotalElements());
             return ResponseEntity.ok(products);
         } catch (Exception e) {
@@ -62,6 +57,32 @@ public class ProductController {
         }
     }
 
+    @Operation(
+        summary = "Get products without total count",
+        description = "Selected with `withTotal=false`. Returns a slice computed by fetching one extra row, so the "
+            + "listing costs a single query. Set `approximateTotal=true` to include the planner's row estimate."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Products retrieved successfully",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = SliceResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content)
+    })
+    @GetMapping(params = "withTotal=false")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<SliceResponse<ProductSummary>> getProductsSlice(Pageable pageable,
+        @RequestParam(defaultValue = "false") boolean approximateTotal) {
+        logger.info("Received request to get products slice");
+        try {
+            var products = productService.findAllSlice(pageable);
+            logger.info("Successfully returned {} products", products.getNumberOfElements());
+            return ResponseEntity.ok(SliceResponse.of(products, approximateTotal ? productService.estimateCount() : null));
+        } catch (Exception e) {
+            logger.error("Error getting products slice: {}", e.getMessage());
+            throw e;
+        }
+    }
+
     @Operation(
         summary = "Get product by ID",
         description = "Retrieves the product with the specified ID. Returns a 404 if the product is not found."
@@ -79,9 +100,6 @@ public class ProductController {
         try {
             return productService.findById(id)
                 .map(product -> {
-                    if (product.getCategory() != null) {
-                        Hibernate.initialize(product.getCategory());
-                    }
                     logger.info("Successfully returned product with id: {}", id);
                     return ResponseEntity.ok(product);
                 })
@@ -95,6 +113,37 @@ public class ProductController {
         }
     }
 
+    @Operation(
+        summary = "Get product by code",
+        description = "Retrieves the product with the specified code (PROD-001). Returns a 404 if no product has the code."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Product found",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Product.class))),
+        @ApiResponse(responseCode = "400", description = "Código inválido", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
+    })
+    @GetMapping("/by-code/{code}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<Product> getProductByCode(@PathVariable String code) {
+        logger.info("Received request to get product with code: {}", code);
+        try {
+            return productService.findByCode(productService.getCodeAsInteger(code))
+                .map(product -> {
+                    logger.info("Successfully returned product with code: {}", code);
+                    return ResponseEntity.ok(product);
+                })
+                .orElseGet(() -> {
+                    logger.warn("Product not found with code: {}", code);
+                    return ResponseEntity.notFound().build();
+                });
+        } catch (Exception e) {
+            logger.error("Error getting product with code {}: {}", code, e.getMessage());
+            throw e;
+        }
+    }
+
     @Operation(summary = "Create a product")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Product successfully created", content = {
@@ -1,31 +1,65 @@
 package com.simplesdental.product.controller;
 
+import com.simplesdental.product.controller.dto.product.v2.AdjustCategoryPriceDTO;
+import com.simplesdental.product.controller.dto.product.v2.BatchCreateProductsResponse;
+import com.simplesdental.product.controller.dto.product.v2.BulkUpdateProductsResponse;
 import com.simplesdental.product.controller.dto.product.v2.CreateProductV2DTO;
+import com.simplesdental.product.controller.dto.product.v2.PatchProductV2DTO;
+import com.simplesdental.product.controller.dto.product.v2.ProductChangesResponse;
+import com.simplesdental.product.controller.dto.product.v2.ProductImportResponse;
+import com.simplesdental.product.controller.dto.product.v2.ProductLookupResponse;
 import com.simplesdental.product.controller.dto.product.v2.UpdateProductV2DTO;
+import com.simplesdental.product.events.CatalogEventStream;
+import com.simplesdental.product.exception.BusinessException;
+import com.simplesdental.product.exporting.ProductExportFormat;
+import com.simplesdental.product.importing.ProductImportFormat;
 import com.simplesdental.product.logging.LoggerWrapper;
+import com.simplesdental.product.model.ETags;
 import com.simplesdental.product.model.Product;
+import com.simplesdental.product.pagination.CursorPage;
+import com.simplesdental.product.pagination.ProductSortKey;
+import com.simplesdental.product.pagination.SliceResponse;
+import com.simplesdental.product.repository.ProductFilter;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import com.simplesdental.product.service.ProductBulkUpdateService;
+import com.simplesdental.product.service.ProductExportService;
+import com.simplesdental.product.service.ProductImportService;
 import com.simplesdental.product.service.ProductService;
+import com.simplesdental.product.suggest.ProductSuggestion;
+import com.simplesdental.product.suggest.ProductSuggestionIndex;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.hibernate.Hibernate;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @RestController
@@ -34,7 +68,19 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Tag(name = "Product Management V2", description = "APIs for managing products.")
 public class ProductV2Controller {
 
+  private static final int MAX_SCROLL_SIZE = 100;
+  private static final int MAX_BATCH_SIZE = 1000;
+  private static final int MAX_LOOKUP_SIZE = 500;
+  private static final int MAX_CHANGES_SIZE = 1000;
+  private static final int MAX_SEARCH_LENGTH = 100;
+  private static final int MAX_SUGGESTIONS = 20;
+
   private final ProductService productService;
+  private final ProductImportService productImportService;
+  private final ProductExportService productExportService;
+  private final ProductBulkUpdateService productBulkUpdateService;
+  private final ProductSuggestionIndex productSuggestionIndex;
+  private final CatalogEventStream catalogEventStream;
   private final LoggerWrapper logger = new LoggerWrapper(ProductV2Controller.class);
 
   @Operation(summary = "Create a product")
@@ -60,72 +106,389 @@ public class ProductV2Controller {
         .build();
   }
 
+  @Operation(
+      summary = "Create products in batch",
+      description = "Validates every item, creates the valid ones in a single transaction and returns the outcome "
+          + "of each item in request order. Invalid items are reported with their errors and do not stop the others."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Batch processed",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = BatchCreateProductsResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Lote vazio ou maior que o permitido", content = @Content),
+      @ApiResponse(responseCode = "500", description = "Erro Interno", content = @Content)
+  })
+  @PostMapping("/batch")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<BatchCreateProductsResponse> createProducts(@RequestBody List<CreateProductV2DTO> input) {
+    logger.info("Creating a batch of {} products", input.size());
+    if (input.isEmpty() || input.size() > MAX_BATCH_SIZE) {
+      throw new BusinessException("O lote deve conter entre 1 e " + MAX_BATCH_SIZE + " produtos.");
+    }
+
+    return ResponseEntity.ok(productService.saveAll(input));
+  }
+
+  @Operation(
+      summary = "Look up products by id",
+      description = "Returns the products with the given ids in request order, with null in the place of each id "
+          + "that does not exist (also listed in `notFound`). Cached products are read in one round trip and the "
+          + "rest with a single query, so this replaces one `GET /{id}` call per product."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Products resolved",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = ProductLookupResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Lista de ids vazia, nula ou maior que a permitida",
+          content = @Content)
+  })
+  @PostMapping("/lookup")
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public ResponseEntity<ProductLookupResponse> lookupProducts(@RequestBody List<Long> ids) {
+    logger.info("Looking up {} products", ids.size());
+    if (ids.isEmpty() || ids.size() > MAX_LOOKUP_SIZE) {
+      throw new BusinessException("A consulta deve conter entre 1 e " + MAX_LOOKUP_SIZE + " ids.");
+    }
+
+    return ResponseEntity.ok(productService.findAllById(ids));
+  }
+
+  @Operation(
+      summary = "Import the catalog from a file",
+      description = "Streams a CSV (`text/csv`, with a header row) or NDJSON (`application/x-ndjson`) body into the "
+          + "catalog through PostgreSQL COPY. The import only inserts: rows follow the create rules, and existing "
+          + "products are never changed. Invalid rows, rows with an unknown category, rows whose code belongs to an "
+          + "existing product and rows whose code appears on an earlier line are rejected and counted, so the first "
+          + "row with a given code is kept. The first 100 rejections are reported with their line numbers."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Import processed",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = ProductImportResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Formato ou cabeçalho inválido", content = @Content),
+      @ApiResponse(responseCode = "500", description = "Erro Interno", content = @Content)
+  })
+  @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<ProductImportResponse> importProducts(HttpServletRequest request) throws IOException {
+    var format = ProductImportFormat.fromContentType(request.getContentType());
+    logger.info("Importing products from {}", format.mediaType());
+    return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), format));
+  }
+
+  @Operation(
+      summary = "Export the whole catalog",
+      description = "Streams every product with its category name as NDJSON (default) or CSV. The export is a "
+          + "single query read through a database cursor, so it is the way to mirror the catalog instead of "
+          + "paging through the listing. The CSV columns can be imported back through `/import`."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Catalog streamed",
+          content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+      @ApiResponse(responseCode = "400", description = "Formato de exportação não suportado", content = @Content),
+      @ApiResponse(responseCode = "500", description = "Erro Interno", content = @Content)
+  })
+  @GetMapping("/export")
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public ResponseEntity<StreamingResponseBody> exportProducts(
+      @Parameter(description = "Output format: ndjson or csv")
+      @RequestParam(defaultValue = "ndjson") String format) {
+    var exportFormat = ProductExportFormat.fromParameter(format);
+    logger.info("Exporting products as {}", exportFormat.mediaType());
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + exportFormat.extension() + "\"")
+        .body(output -> productExportService.exportProducts(output, exportFormat));
+  }
+
+  @Operation(
+      summary = "Patch products in bulk",
+      description = "Changes the price and/or status of up to 1000 products with a single UPDATE in one "
+          + "transaction. Omitted fields keep their value. Any invalid item rejects the whole request; ids that "
+          + "do not exist are returned in `notFound`."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Products updated",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = BulkUpdateProductsResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Lote vazio ou maior que o permitido", content = @Content),
+      @ApiResponse(responseCode = "422", description = "Itens inválidos", content = @Content),
+      @ApiResponse(responseCode = "500", description = "Erro Interno", content = @Content)
+  })
+  @PatchMapping
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<BulkUpdateProductsResponse> patchProducts(@RequestBody List<PatchProductV2DTO> input) {
+    logger.info("Patching a batch of {} products", input.size());
+    if (input.isEmpty() || input.size() > MAX_BATCH_SIZE) {
+      throw new BusinessException("O lote deve conter entre 1 e " + MAX_BATCH_SIZE + " produtos.");
+    }
+
+    return ResponseEntity.ok(productBulkUpdateService.patch(input));
+  }
+
+  @Operation(
+      summary = "Adjust the prices of a category",
+      description = "Applies a percentage to the price of every product of the category with a single UPDATE, "
+          + "rounding to cents. Use a negative percentage for a discount."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Prices adjusted",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = BulkUpdateProductsResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Percentual inválido", content = @Content),
+      @ApiResponse(responseCode = "404", description = "A categoria informada não existe.", content = @Content),
+      @ApiResponse(responseCode = "500", description = "Erro Interno", content = @Content)
+  })
+  @PatchMapping("/categories/{categoryId}/price")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<BulkUpdateProductsResponse> adjustCategoryPrices(@PathVariable Long categoryId,
+      @Valid @RequestBody AdjustCategoryPriceDTO input) {
+    logger.info("Adjusting prices of category {}", categoryId);
+    return ResponseEntity.ok(productBulkUpdateService.adjustCategoryPrices(categoryId, input));
+  }
 
   @Operation(
       summary = "Update a product",
-      description = "Updates a product identified by its ID using the provided update data."
+      description = "Updates a product identified by its ID using the provided update data. Send the ETag of the "
+          + "last read in `If-Match` to update only if the product has not changed since."
   )
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Product updated successfully",
           content = @Content(mediaType = "application/json",
               schema = @Schema(implementation = UpdateProductV2DTO.class))),
       @ApiResponse(responseCode = "404", description = "Product not found", content = @Content),
+      @ApiResponse(responseCode = "409", description = "Product changed by a concurrent update", content = @Content),
+      @ApiResponse(responseCode = "412", description = "Product changed since the ETag in If-Match",
+          content = @Content),
       @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content)
   })
   @PreAuthorize("hasRole('ADMIN')")
   @PutMapping("/{id}")
-  public ResponseEntity<UpdateProductV2DTO> updateProduct(@PathVariable Long id, @Valid @RequestBody UpdateProductV2DTO input) {
+  public ResponseEntity<UpdateProductV2DTO> updateProduct(@PathVariable Long id,
+      @Valid @RequestBody UpdateProductV2DTO input,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     logger.info("Updating product with id {}", id);
-    var updatedProduct = productService.update(id, input);
+    var updatedProduct = productService.update(id, input, ifMatch);
     return ResponseEntity.ok(updatedProduct);
   }
 
 
   @Operation(
       summary = "Get all products",
-      description = "Retrieves a paginated list of products. For each product, if a category exists it is eagerly initialized."
+      description = "Retrieves a paginated list of products with their category, read as a projection of the listed columns. "
+          + "Category, status, price range and name prefix filters are applied in the database."
   )
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Products retrieved successfully",
           content = @Content(mediaType = "application/json",
               schema = @Schema(implementation = Page.class))),
+      @ApiResponse(responseCode = "400", description = "Filtro inválido", content = @Content),
       @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content)
   })
   @GetMapping
   @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-  public ResponseEntity<Page<Product>> getAllProducts(Pageable pageable) {
+  public ResponseEntity<Page<ProductSummary>> getAllProducts(@ParameterObject ProductFilter filter, Pageable pageable) {
     logger.info("Getting all products...");
-    Page<Product> products = productService.findAll(pageable);
-    products.forEach(product -> {
-      if (product.getCategory() != null) {
-        Hibernate.initialize(product.getCategory());
-      }
-    });
+    return ResponseEntity.ok(productService.findAll(filter, pageable));
+  }
 
-    return ResponseEntity.ok(products);
+  @Operation(
+      summary = "Get products without total count",
+      description = "Selected with `withTotal=false`. Returns a slice computed by fetching one extra row, so the "
+          + "listing costs a single query. Set `approximateTotal=true` to include the planner's row estimate."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Products retrieved successfully",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = SliceResponse.class))),
+      @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content)
+  })
+  @GetMapping(params = "withTotal=false")
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public ResponseEntity<SliceResponse<ProductSummary>> getProductsSlice(@ParameterObject ProductFilter filter,
+      Pageable pageable, @RequestParam(defaultValue = "false") boolean approximateTotal) {
+    logger.info("Getting products slice...");
+    var products = productService.findAllSlice(filter, pageable);
+    return ResponseEntity.ok(SliceResponse.of(products, approximateTotal ? productService.estimateCount() : null));
+  }
+
+  @Operation(
+      summary = "Scroll products by cursor",
+      description = "Retrieves products using keyset pagination. Pass the `next` value of a response as `after` "
+          + "to get the following page. No total count is computed, so deep pages cost the same as the first one."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Products retrieved successfully",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = CursorPage.class))),
+      @ApiResponse(responseCode = "400", description = "Cursor, ordenação ou tamanho inválido", content = @Content),
+      @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content)
+  })
+  @GetMapping("/scroll")
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public ResponseEntity<CursorPage<ProductSummary>> scrollProducts(
+      @Parameter(description = "Opaque cursor returned as `next` by the previous page")
+      @RequestParam(required = false) String after,
+      @Parameter(description = "Page size, between 1 and " + MAX_SCROLL_SIZE)
+      @RequestParam(defaultValue = "20") int size,
+      @Parameter(description = "Sort key: id, name or price (ascending)")
+      @RequestParam(defaultValue = "id") String sort) {
+    logger.info("Scrolling products sorted by {} with size {}", sort, size);
+    if (size < 1 || size > MAX_SCROLL_SIZE) {
+      throw new BusinessException("O tamanho da página deve estar entre 1 e " + MAX_SCROLL_SIZE + ".");
+    }
+
+    return ResponseEntity.ok(productService.findAllAfter(ProductSortKey.fromParameter(sort), after, size));
+  }
+
+  @Operation(
+      summary = "Get product changes",
+      description = "Change feed for catalog mirrors: products created, updated or deleted after `since`, oldest "
+          + "first. Omit `since` for a full first sync, then always pass the `next` value of the last response. "
+          + "Deletions come with a null `product`. Request again right away while `hasMore` is true."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Changes returned",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = ProductChangesResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Cursor ou tamanho inválido", content = @Content)
+  })
+  @GetMapping("/changes")
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public ResponseEntity<ProductChangesResponse> getProductChanges(
+      @Parameter(description = "The `next` value of the previous response; omit for a full sync")
+      @RequestParam(required = false) String since,
+      @Parameter(description = "Maximum number of changes, between 1 and " + MAX_CHANGES_SIZE)
+      @RequestParam(defaultValue = "500") int size) {
+    if (size < 1 || size > MAX_CHANGES_SIZE) {
+      throw new BusinessException("O tamanho da página deve estar entre 1 e " + MAX_CHANGES_SIZE + ".");
+    }
+
+    return ResponseEntity.ok(productService.findChanges(since, size));
+  }
+
+  @Operation(
+      summary = "Stream product changes",
+      description = "Server-Sent Events pushed as soon as products or categories are created, updated or deleted. "
+          + "Events are named like `product.updated` and carry the changed ids; read the products by id to get "
+          + "their new state. Reconnect with `Last-Event-ID` to receive the events missed meanwhile. A "
+          + "`product.resync` event means they are no longer available: catch up from `/changes`."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Event stream opened",
+          content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+      @ApiResponse(responseCode = "503", description = "Muitas conexões abertas", content = @Content)
+  })
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public SseEmitter streamProductChanges(
+      @Parameter(description = "Id of the last event received, sent by EventSource when it reconnects")
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    return catalogEventStream.subscribe(lastEventId);
+  }
+
+  @Operation(
+      summary = "Search products",
+      description = "Full-text search on name and description (Portuguese stemming, name ranked higher), also "
+          + "matching names with typos. Results come in relevance order; pass the `next` value of a response as "
+          + "`after` to get the following page."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Products found",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = CursorPage.class))),
+      @ApiResponse(responseCode = "400", description = "Busca, cursor ou tamanho inválido", content = @Content),
+      @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content)
+  })
+  @GetMapping("/search")
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public ResponseEntity<CursorPage<ProductSummary>> searchProducts(
+      @Parameter(description = "Words to search for; quotes, `or` and `-word` are supported")
+      @RequestParam String q,
+      @Parameter(description = "Opaque cursor returned as `next` by the previous page")
+      @RequestParam(required = false) String after,
+      @Parameter(description = "Page size, between 1 and " + MAX_SCROLL_SIZE)
+      @RequestParam(defaultValue = "20") int size) {
+    logger.info("Searching products with size {}", size);
+    if (q.isBlank() || q.length() > MAX_SEARCH_LENGTH) {
+      throw new BusinessException("A busca deve ter entre 1 e " + MAX_SEARCH_LENGTH + " caracteres.");
+    }
+    if (size < 1 || size > MAX_SCROLL_SIZE) {
+      throw new BusinessException("O tamanho da página deve estar entre 1 e " + MAX_SCROLL_SIZE + ".");
+    }
+
+    return ResponseEntity.ok(productService.search(q.trim(), after, size));
+  }
+
+  @Operation(
+      summary = "Suggest product names",
+      description = "Typeahead: returns products with a word of the name starting with `q` (case and accents "
+          + "ignored). Served from an in-memory index, without a database query."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Suggestions returned",
+          content = @Content(mediaType = "application/json",
+              array = @ArraySchema(schema = @Schema(implementation = ProductSuggestion.class)))),
+      @ApiResponse(responseCode = "400", description = "Busca ou limite inválido", content = @Content)
+  })
+  @GetMapping("/suggest")
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+      @Parameter(description = "Beginning of a word of the product name")
+      @RequestParam String q,
+      @Parameter(description = "Maximum number of suggestions, between 1 and " + MAX_SUGGESTIONS)
+      @RequestParam(defaultValue = "10") int limit) {
+    if (q.length() > MAX_SEARCH_LENGTH) {
+      throw new BusinessException("A busca deve ter entre 1 e " + MAX_SEARCH_LENGTH + " caracteres.");
+    }
+    if (limit < 1 || limit > MAX_SUGGESTIONS) {
+      throw new BusinessException("O limite de sugestões deve estar entre 1 e " + MAX_SUGGESTIONS + ".");
+    }
+
+    return ResponseEntity.ok(productSuggestionIndex.suggest(q, limit));
+  }
+
+  @Operation(
+      summary = "Get product by code",
+      description = "Retrieves the product with the specified code through its unique index. "
+          + "Results are cached and evicted whenever the product changes. Returns a 404 if no product has the code."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Product found",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = Product.class))),
+      @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
+  })
+  @GetMapping("/by-code/{code}")
+  @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+  public ResponseEntity<Product> getProductByCode(@PathVariable Integer code) {
+    logger.info("Getting product with code {}", code);
+    return productService.findByCode(code)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
   }
 
   @Operation(
       summary = "Get product by ID",
-      description = "Retrieves the product with the specified ID. Returns a 404 if the product is not found."
+      description = "Retrieves the product with the specified ID. Returns a 404 if the product is not found. "
+          + "The response carries an ETag; sending it back in `If-None-Match` returns 304 without a body while "
+          + "the product is unchanged."
   )
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Product found",
           content = @Content(mediaType = "application/json",
               schema = @Schema(implementation = Product.class))),
+      @ApiResponse(responseCode = "304", description = "Product unchanged since the ETag in If-None-Match",
+          content = @Content),
       @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
   })
   @GetMapping("/{id}")
   @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
   public ResponseEntity<Product> getProductById(@PathVariable Long id) {
     logger.info("Getting product with id {}", id);
+    // With an ETag set, Spring answers a matching If-None-Match with 304 before serializing the body.
     return productService.findById(id)
-        .map(product -> {
-          if (product.getCategory() != null) {
-            Hibernate.initialize(product.getCategory());
-          }
-          return ResponseEntity.ok(product);
-        })
+        .map(product -> ResponseEntity.ok().eTag(ETags.of(product)).body(product))
         .orElse(ResponseEntity.notFound().build());
   }
 
@@ -141,11 +504,8 @@ public class ProductV2Controller {
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
     logger.info("Deleting product with id {}", id);
-    return productService.findById(id)
-        .map(product -> {
-          productService.deleteById(id);
-          return ResponseEntity.noContent().<Void>build();
-        })
-        .orElse(ResponseEntity.notFound().build());
+    return productService.deleteById(id)
+        ? ResponseEntity.noContent().build()
+        : ResponseEntity.notFound().build();
   }
 }
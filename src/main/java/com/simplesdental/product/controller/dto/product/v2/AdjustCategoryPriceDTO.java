@@ -0,0 +1,17 @@
+package com.simplesdental.product.controller.dto.product.v2;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+/**
+ * Percentage applied to the price of every product of a category: 10 raises prices by 10%, -15 lowers them by 15%.
+ */
+public record AdjustCategoryPriceDTO(
+    @NotNull(message = "O percentual de reajuste é obrigatório.")
+    @DecimalMin(value = "-99.99", message = "O percentual de reajuste deve ser maior que -100.")
+    @DecimalMax(value = "1000", message = "O percentual de reajuste deve ser no máximo 1000.")
+    @Digits(integer = 4, fraction = 2, message = "O percentual de reajuste deve ter no máximo 2 casas decimais.")
+    BigDecimal percentage) {}
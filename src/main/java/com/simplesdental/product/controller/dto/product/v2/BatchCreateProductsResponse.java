@@ -0,0 +1,11 @@
+package com.simplesdental.product.controller.dto.product.v2;
+
+import java.util.List;
+
+public record BatchCreateProductsResponse(int created, int failed, List<BatchProductResult> items) {
+
+    public static BatchCreateProductsResponse of(List<BatchProductResult> items) {
+        int created = (int) items.stream().filter(item -> item.id() != null).count();
+        return new BatchCreateProductsResponse(created, items.size() - created, items);
+    }
+}
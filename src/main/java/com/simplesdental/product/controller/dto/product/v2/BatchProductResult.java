@@ -0,0 +1,17 @@
+package com.simplesdental.product.controller.dto.product.v2;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a batch create, identified by its position in the request.
+ */
+public record BatchProductResult(int index, Long id, List<String> errors) {
+
+    public static BatchProductResult created(int index, Long id) {
+        return new BatchProductResult(index, id, List.of());
+    }
+
+    public static BatchProductResult failed(int index, List<String> errors) {
+        return new BatchProductResult(index, null, errors);
+    }
+}
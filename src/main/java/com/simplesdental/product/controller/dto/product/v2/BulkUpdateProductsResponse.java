@@ -0,0 +1,8 @@
+package com.simplesdental.product.controller.dto.product.v2;
+
+import java.util.List;
+
+/**
+ * Number of products changed by a bulk update, and the requested ids that do not exist.
+ */
+public record BulkUpdateProductsResponse(int updated, List<Long> notFound) {}
@@ -0,0 +1,5 @@
+package com.simplesdental.product.controller.dto.product.v2;
+
+import java.util.List;
+
+public record ImportRowError(long line, List<String> messages) {}
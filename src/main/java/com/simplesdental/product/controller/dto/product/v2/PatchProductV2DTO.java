@@ -0,0 +1,17 @@
+package com.simplesdental.product.controller.dto.product.v2;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+
+/**
+ * Partial update of one product in a bulk patch. Omitted fields keep their current value.
+ */
+public record PatchProductV2DTO(
+    @NotNull(message = "O id do produto é obrigatório.")
+    Long id,
+
+    @Positive(message = "O preço do produto deve ser maior que zero.")
+    BigDecimal price,
+
+    Boolean status) {}
@@ -0,0 +1,10 @@
+package com.simplesdental.product.controller.dto.product.v2;
+
+import com.simplesdental.product.repository.projection.ProductChange;
+import java.util.List;
+
+/**
+ * A page of the change feed. {@code next} is always set: it is the {@code since} of the following request, and
+ * stays the same when nothing changed. {@code hasMore} tells whether changes are already waiting after it.
+ */
+public record ProductChangesResponse(List<ProductChange> changes, String next, boolean hasMore) {}
@@ -0,0 +1,8 @@
+package com.simplesdental.product.controller.dto.product.v2;
+
+import java.util.List;
+
+/**
+ * Summary of a catalog import. {@code errors} lists at most the first rejected rows; {@code rejected} counts all of them.
+ */
+public record ProductImportResponse(long received, long imported, long rejected, List<ImportRowError> errors) {}
@@ -0,0 +1,10 @@
+package com.simplesdental.product.controller.dto.product.v2;
+
+import com.simplesdental.product.model.Product;
+import java.util.List;
+
+/**
+ * Products in the order their ids were requested, with {@code null} in the place of each id that does not
+ * exist; those ids are also listed in {@code notFound}.
+ */
+public record ProductLookupResponse(List<Product> products, List<Long> notFound) {}
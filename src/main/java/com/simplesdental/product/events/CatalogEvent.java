@@ -0,0 +1,23 @@
+package com.simplesdental.product.events;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A committed catalog change, as pushed to the stream clients. {@code id} is the SSE event id a client sends
+ * back in {@code Last-Event-ID} to resume. A {@link Type#RESYNC} event has no ids: the client should read the
+ * change feed to catch up.
+ */
+public record CatalogEvent(String id, Entity entity, Type type, List<Long> ids) {
+
+    public enum Entity { PRODUCT, CATEGORY }
+
+    public enum Type { CREATED, UPDATED, DELETED, RESYNC }
+
+    /**
+     * SSE event name, such as {@code product.updated}.
+     */
+    public String name() {
+        return entity.name().toLowerCase(Locale.ROOT) + "." + type.name().toLowerCase(Locale.ROOT);
+    }
+}
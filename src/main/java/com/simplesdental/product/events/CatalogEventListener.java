@@ -0,0 +1,34 @@
+package com.simplesdental.product.events;
+
+import com.simplesdental.product.logging.LoggerWrapper;
+import java.util.function.Consumer;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Hands the catalog events published by any node to a consumer on this node, such as its stream clients.
+ */
+public class CatalogEventListener implements MessageListener {
+
+    private final Consumer<CatalogEvent> consumer;
+    private final RedisSerializer<CatalogEvent> serializer;
+    private final LoggerWrapper logger = new LoggerWrapper(CatalogEventListener.class);
+
+    public CatalogEventListener(Consumer<CatalogEvent> consumer, RedisSerializer<CatalogEvent> serializer) {
+        this.consumer = consumer;
+        this.serializer = serializer;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            var event = serializer.deserialize(message.getBody());
+            if (event != null) {
+                consumer.accept(event);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not handle catalog event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.simplesdental.product.events;
+
+import com.simplesdental.product.outbox.OutboxWriter;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/**
+ * Announces catalog changes to the stream clients of every node. Events are written to the outbox in the
+ * transaction of the change, so rolled back changes are never announced, and the outbox relay publishes them
+ * on Redis pub/sub after the commit. Each node hands the events it receives to its {@link CatalogEventStream}.
+ */
+@Component
+public class CatalogEventPublisher {
+
+    static final int MAX_IDS_PER_EVENT = 1000;
+
+    private final OutboxWriter outboxWriter;
+
+    public CatalogEventPublisher(OutboxWriter outboxWriter) {
+        this.outboxWriter = outboxWriter;
+    }
+
+    public void publish(CatalogEvent.Entity entity, CatalogEvent.Type type, Long id) {
+        publish(entity, type, List.of(id));
+    }
+
+    /**
+     * Announces a change to many rows. Past {@value #MAX_IDS_PER_EVENT} ids a single resync event is sent instead.
+     */
+    public void publish(CatalogEvent.Entity entity, CatalogEvent.Type type, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (ids.size() > MAX_IDS_PER_EVENT) {
+            publishResync(entity);
+            return;
+        }
+        outboxWriter.publish(new CatalogEvent(UUID.randomUUID().toString(), entity, type, List.copyOf(ids)));
+    }
+
+    /**
+     * Announces a change too large to list, such as an import.
+     */
+    public void publishResync(CatalogEvent.Entity entity) {
+        outboxWriter.publish(new CatalogEvent(UUID.randomUUID().toString(), entity, CatalogEvent.Type.RESYNC, List.of()));
+    }
+}
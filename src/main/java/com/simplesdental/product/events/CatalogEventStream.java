@@ -0,0 +1,221 @@
+package com.simplesdental.product.events;
+
+import com.simplesdental.product.exception.ServiceUnavailableException;
+import com.simplesdental.product.logging.LoggerWrapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events connections of this node to {@code /api/v2/products/stream}.
+ * Each connection has a bounded buffer drained by a small sender pool, so a slow client never holds up the
+ * Redis listener or the other clients; a client whose buffer fills up is disconnected and resumes on reconnect.
+ * The last {@code app.stream.replay-size} events are kept in arrival order, which is the same on every node,
+ * so a client reconnecting to any node with {@code Last-Event-ID} gets the events it missed. When that id is
+ * no longer kept, the client gets a resync event and should catch up from the change feed.
+ */
+@Component
+public class CatalogEventStream implements DisposableBean {
+
+    // Marker for a keep-alive comment; never dispatched or kept for replay.
+    private static final CatalogEvent HEARTBEAT = new CatalogEvent(null, null, null, List.of());
+
+    private final int replaySize;
+    private final int bufferSize;
+    private final int maxConnections;
+    private final Supplier<SseEmitter> emitters;
+    private final Executor sender;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Guarded by this, together with the registration of new subscribers.
+    private final Deque<CatalogEvent> recent = new ArrayDeque<>();
+    private final LoggerWrapper logger = new LoggerWrapper(CatalogEventStream.class);
+
+    @Autowired
+    public CatalogEventStream(@Value("${app.stream.replay-size:1000}") int replaySize,
+                              @Value("${app.stream.buffer-size:256}") int bufferSize,
+                              @Value("${app.stream.max-connections:1000}") int maxConnections,
+                              @Value("${app.stream.timeout:30m}") Duration timeout,
+                              @Value("${app.stream.sender-threads:4}") int senderThreads,
+                              MeterRegistry meterRegistry) {
+        this(replaySize, bufferSize, maxConnections, () -> new SseEmitter(timeout.toMillis()),
+            Executors.newFixedThreadPool(senderThreads, new SenderThreadFactory()), meterRegistry);
+    }
+
+    CatalogEventStream(int replaySize, int bufferSize, int maxConnections, Supplier<SseEmitter> emitters,
+                       Executor sender, MeterRegistry meterRegistry) {
+        this.replaySize = replaySize;
+        this.bufferSize = bufferSize;
+        this.maxConnections = maxConnections;
+        this.emitters = emitters;
+        this.sender = sender;
+        meterRegistry.gaugeCollectionSize("catalog.stream.connections", Tags.empty(), subscribers);
+    }
+
+    /**
+     * Opens a connection that receives every event dispatched from now on, preceded by the events after
+     * {@code lastEventId} when the client is resuming.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        Subscriber subscriber;
+        synchronized (this) {
+            if (subscribers.size() >= maxConnections) {
+                logger.warn("Rejecting catalog stream connection, {} already open", subscribers.size());
+                throw new ServiceUnavailableException("Muitas conexões abertas. Tente novamente em instantes.");
+            }
+
+            subscriber = new Subscriber(emitters.get());
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+
+        var emitter = subscriber.emitter;
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        logger.info("Catalog stream connection opened, resuming after: {}", lastEventId);
+        return emitter;
+    }
+
+    public synchronized void dispatch(CatalogEvent event) {
+        recent.addLast(event);
+        if (recent.size() > replaySize) {
+            recent.removeFirst();
+        }
+        subscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    public int connections() {
+        return subscribers.size();
+    }
+
+    // Proxies close connections that stay silent, and a failed write is how a dead client is noticed.
+    @Scheduled(initialDelayString = "${app.stream.heartbeat-interval:PT15S}",
+        fixedDelayString = "${app.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    @Override
+    public void destroy() {
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        var missed = new ArrayList<CatalogEvent>();
+        boolean found = false;
+        for (var event : recent) {
+            if (found) {
+                missed.add(event);
+            } else if (lastEventId.equals(event.id())) {
+                found = true;
+            }
+        }
+
+        if (!found || missed.size() >= bufferSize) {
+            var latest = recent.isEmpty() ? null : recent.getLast().id();
+            subscriber.offer(new CatalogEvent(latest, CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.RESYNC, List.of()));
+            return;
+        }
+        missed.forEach(subscriber::offer);
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(CatalogEvent event) {
+        if (event == HEARTBEAT) {
+            return SseEmitter.event().comment("keep-alive");
+        }
+
+        var builder = SseEmitter.event().name(event.name()).data(event, MediaType.APPLICATION_JSON);
+        return event.id() == null ? builder : builder.id(event.id());
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<CatalogEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(CatalogEvent event) {
+            if (!buffer.offer(event)) {
+                logger.warn("Catalog stream client fell {} events behind, disconnecting it", bufferSize);
+                subscribers.remove(this);
+                emitter.complete();
+                return;
+            }
+            schedule();
+        }
+
+        void heartbeat() {
+            if (buffer.isEmpty()) {
+                offer(HEARTBEAT);
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                CatalogEvent event;
+                while ((event = buffer.poll()) != null) {
+                    emitter.send(toSse(event));
+                }
+            } catch (Exception e) {
+                // The container completes the emitter after a failed write; the client resumes on reconnect.
+                logger.info("Catalog stream client disconnected: {}", e.getMessage());
+                subscribers.remove(this);
+                return;
+            }
+
+            draining.set(false);
+            if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, "catalog-stream-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
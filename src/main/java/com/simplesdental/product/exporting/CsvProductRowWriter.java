@@ -0,0 +1,61 @@
+package com.simplesdental.product.exporting;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV with a header row. Fields containing a comma, quote or line break are quoted; null is an empty field.
+ */
+class CsvProductRowWriter implements ProductRowWriter {
+
+    static final String HEADER = "id,name,description,price,status,code,categoryId,categoryName";
+
+    private final Writer writer;
+
+    CsvProductRowWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(ExportedProduct product) throws IOException {
+        writeField(product.id(), false);
+        writeField(product.name(), true);
+        writeField(product.description(), true);
+        writeField(product.price(), true);
+        writeField(product.status(), true);
+        writeField(product.code(), true);
+        writeField(product.categoryId(), true);
+        writeField(product.categoryName(), true);
+        writer.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(Object value, boolean separator) throws IOException {
+        if (separator) {
+            writer.write(',');
+        }
+        if (value == null) {
+            return;
+        }
+
+        var text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+}
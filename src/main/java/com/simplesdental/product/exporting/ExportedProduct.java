@@ -0,0 +1,17 @@
+package com.simplesdental.product.exporting;
+
+import java.math.BigDecimal;
+
+/**
+ * One exported product with its category. The field names match the import columns,
+ * so an export can be imported back.
+ */
+public record ExportedProduct(
+    Long id,
+    String name,
+    String description,
+    BigDecimal price,
+    Boolean status,
+    Integer code,
+    Long categoryId,
+    String categoryName) {}
@@ -0,0 +1,51 @@
+package com.simplesdental.product.exporting;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One JSON object per line.
+ */
+class NdjsonProductRowWriter implements ProductRowWriter {
+
+    private final JsonGenerator generator;
+
+    NdjsonProductRowWriter(OutputStream output, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(output)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are separated by the newline written after each object, not by Jackson's default space.
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(ExportedProduct product) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", product.id());
+        generator.writeStringField("name", product.name());
+        generator.writeStringField("description", product.description());
+        generator.writeFieldName("price");
+        if (product.price() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(product.price());
+        }
+        writeNullable("status", product.status());
+        writeNullable("code", product.code());
+        writeNullable("categoryId", product.categoryId());
+        generator.writeStringField("categoryName", product.categoryName());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+
+    private void writeNullable(String field, Object value) throws IOException {
+        generator.writeFieldName(field);
+        generator.writeObject(value);
+    }
+}
@@ -0,0 +1,33 @@
+package com.simplesdental.product.exporting;
+
+import com.simplesdental.product.exception.BusinessException;
+import java.util.Locale;
+
+public enum ProductExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ProductExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ProductExportFormat fromParameter(String parameter) {
+        try {
+            return valueOf(parameter.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Formato de exportação não suportado: " + parameter + ". Use csv ou ndjson.");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.simplesdental.product.exporting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes exported products one at a time to the response stream.
+ * {@link #finish()} flushes buffered output without closing the stream, which belongs to the container.
+ */
+public interface ProductRowWriter {
+
+    void write(ExportedProduct product) throws IOException;
+
+    void finish() throws IOException;
+
+    static ProductRowWriter of(ProductExportFormat format, OutputStream output, ObjectMapper objectMapper)
+        throws IOException {
+        return switch (format) {
+            case CSV -> new CsvProductRowWriter(output);
+            case NDJSON -> new NdjsonProductRowWriter(output, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package com.simplesdental.product.importing;
+
+import com.simplesdental.product.controller.dto.product.v2.CreateProductV2DTO;
+import com.simplesdental.product.exception.BusinessException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * RFC 4180 CSV with a header row naming the columns: name, description, price, status, code and categoryId
+ * (or category_id). Quoted fields may contain commas, quotes ("") and line breaks. Empty fields are null.
+ */
+class CsvProductRowReader implements ProductRowReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "price", "status", "categoryid");
+
+    private final BufferedReader reader;
+    private Map<String, Integer> columns;
+    private long lineNumber = 1;
+
+    CsvProductRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+
+        List<String> fields;
+        long recordLine;
+        do {
+            recordLine = lineNumber;
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+        return toRow(recordLine, fields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        var header = readRecord();
+        if (header == null) {
+            throw new BusinessException("O arquivo CSV está vazio.");
+        }
+
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+
+        for (var column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new BusinessException("O cabeçalho do CSV não possui a coluna obrigatória: " + column + ".");
+            }
+        }
+    }
+
+    private ImportRow toRow(long line, List<String> fields) {
+        var errors = new ArrayList<String>();
+        var product = new CreateProductV2DTO(
+            field(fields, "name"),
+            field(fields, "description"),
+            parse(fields, "price", BigDecimal::new, "Preço inválido", errors),
+            parse(fields, "status", CsvProductRowReader::parseBoolean, "Status inválido", errors),
+            parse(fields, "code", Integer::valueOf, "Código inválido", errors),
+            parse(fields, "categoryid", Long::valueOf, "Categoria inválida", errors));
+
+        return errors.isEmpty() ? ImportRow.of(line, product) : ImportRow.invalid(line, errors);
+    }
+
+    private String field(List<String> fields, String column) {
+        var index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private <T> T parse(List<String> fields, String column, Function<String, T> parser, String error,
+                        List<String> errors) {
+        var value = field(fields, column);
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return parser.apply(value.trim());
+        } catch (IllegalArgumentException e) {
+            errors.add(error + ": " + value);
+            return null;
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(value);
+    }
+
+    /**
+     * Reads the fields of the next record, or returns {@code null} at the end of the input.
+     */
+    private List<String> readRecord() throws IOException {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var inQuotes = false;
+        var firstLine = lineNumber;
+        var length = 0;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new BusinessException("O registro iniciado na linha " + firstLine
+                    + " do CSV excede o limite de " + MAX_RECORD_LENGTH + " caracteres.");
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (length == 0) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,37 @@
+package com.simplesdental.product.importing;
+
+import com.simplesdental.product.controller.dto.product.v2.ImportRowError;
+import com.simplesdental.product.controller.dto.product.v2.ProductImportResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts rejected rows while keeping only the first errors, so a bad file cannot grow the report without bound.
+ */
+public class ImportReport {
+
+    private final int maxReportedErrors;
+    private final List<ImportRowError> errors = new ArrayList<>();
+    private long received;
+    private long rejected;
+
+    public ImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void received() {
+        received++;
+    }
+
+    public void reject(long line, List<String> messages) {
+        rejected++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new ImportRowError(line, messages));
+        }
+    }
+
+    public ProductImportResponse toResponse(long imported) {
+        errors.sort((a, b) -> Long.compare(a.line(), b.line()));
+        return new ProductImportResponse(received, imported, rejected, List.copyOf(errors));
+    }
+}
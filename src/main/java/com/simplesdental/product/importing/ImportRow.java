@@ -0,0 +1,19 @@
+package com.simplesdental.product.importing;
+
+import com.simplesdental.product.controller.dto.product.v2.CreateProductV2DTO;
+import java.util.List;
+
+/**
+ * One record of an import file. {@code product} is null when the record could not be parsed,
+ * in which case {@code errors} says why.
+ */
+public record ImportRow(long line, CreateProductV2DTO product, List<String> errors) {
+
+    public static ImportRow of(long line, CreateProductV2DTO product) {
+        return new ImportRow(line, product, List.of());
+    }
+
+    public static ImportRow invalid(long line, List<String> errors) {
+        return new ImportRow(line, null, errors);
+    }
+}
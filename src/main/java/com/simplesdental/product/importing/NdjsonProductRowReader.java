@@ -0,0 +1,70 @@
+package com.simplesdental.product.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.product.controller.dto.product.v2.CreateProductV2DTO;
+import com.simplesdental.product.exception.BusinessException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * One JSON object per line, with the same fields as {@code CreateProductV2DTO}. Blank lines are skipped.
+ */
+class NdjsonProductRowReader implements ProductRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonProductRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String line;
+        while ((line = readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                return ImportRow.of(lineNumber, objectMapper.readValue(line, CreateProductV2DTO.class));
+            } catch (JsonProcessingException e) {
+                return ImportRow.invalid(lineNumber, List.of("JSON inválido: " + e.getOriginalMessage()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the next line like {@link BufferedReader#readLine()}, but stops at {@code MAX_RECORD_LENGTH}.
+     */
+    private String readLine() throws IOException {
+        var line = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (line.length() == MAX_RECORD_LENGTH) {
+                throw new BusinessException("A linha " + (lineNumber + 1) + " do NDJSON excede o limite de "
+                    + MAX_RECORD_LENGTH + " caracteres.");
+            }
+            line.append((char) c);
+        }
+        if (c == -1 && line.isEmpty()) {
+            return null;
+        }
+
+        lineNumber++;
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return line.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,31 @@
+package com.simplesdental.product.importing;
+
+import com.simplesdental.product.exception.BusinessException;
+import org.springframework.http.MediaType;
+
+public enum ProductImportFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    ProductImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static ProductImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            var type = MediaType.parseMediaType(contentType);
+            for (var format : values()) {
+                if (MediaType.parseMediaType(format.mediaType).equalsTypeAndSubtype(type)) {
+                    return format;
+                }
+            }
+        }
+        throw new BusinessException("Formato de importação não suportado. Use text/csv ou application/x-ndjson.");
+    }
+}
@@ -0,0 +1,34 @@
+package com.simplesdental.product.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads an import file one record at a time, so the file is never held in memory as a whole.
+ */
+public interface ProductRowReader extends Closeable {
+
+    /**
+     * Longest record accepted, in characters. A longer one, such as a CSV quote that is never closed, rejects
+     * the file instead of being buffered.
+     */
+    int MAX_RECORD_LENGTH = 16 * 1024;
+
+    /**
+     * Returns the next record, or {@code null} once the input is exhausted.
+     */
+    ImportRow next() throws IOException;
+
+    static ProductRowReader of(ProductImportFormat format, InputStream input, ObjectMapper objectMapper) {
+        var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return switch (format) {
+            case CSV -> new CsvProductRowReader(reader);
+            case NDJSON -> new NdjsonProductRowReader(reader, objectMapper);
+        };
+    }
+}
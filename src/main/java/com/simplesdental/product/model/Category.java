@@ -7,6 +7,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 
 import jakarta.validation.constraints.Size;
@@ -37,6 +38,9 @@ public class Category {
     @Size(max = 255, message = "A descrição da categoria deve ter no máximo 255 caracteres.")
     private String description;
 
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "category")
     @JsonIgnoreProperties({"category"})
     private List<Product> products;
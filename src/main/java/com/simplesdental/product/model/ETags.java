@@ -0,0 +1,41 @@
+package com.simplesdental.product.model;
+
+import java.util.Arrays;
+
+/**
+ * Strong ETags derived from row versions, so they can be compared without serializing the representation.
+ * A product embeds its category, so its tag also carries the category version. A missing version (a value
+ * cached before versions existed) counts as 0, the value the migration gave every existing row.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Product product) {
+        var category = product.getCategory();
+        return quote(version(product.getVersion()) + "." + (category == null ? 0 : version(category.getVersion())));
+    }
+
+    public static String of(Category category) {
+        return quote(Long.toString(version(category.getVersion())));
+    }
+
+    /**
+     * Whether an {@code If-Match} header value matches the current tag, using the strong comparison
+     * required by RFC 9110: {@code *} matches anything and weak tags never match.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        return Arrays.stream(ifMatch.split(","))
+            .map(String::trim)
+            .anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag));
+    }
+
+    private static long version(Long version) {
+        return version == null ? 0 : version;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
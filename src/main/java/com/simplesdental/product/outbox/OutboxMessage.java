@@ -0,0 +1,10 @@
+package com.simplesdental.product.outbox;
+
+/**
+ * A row of the {@code outbox} table. {@link Kind#EVICT} rows name a cache and a key, {@link Kind#CLEAR} rows
+ * only a cache, and {@link Kind#EVENT} rows carry a catalog event as JSON.
+ */
+record OutboxMessage(long id, Kind kind, String cacheName, String cacheKey, String payload) {
+
+    enum Kind { EVICT, CLEAR, EVENT }
+}
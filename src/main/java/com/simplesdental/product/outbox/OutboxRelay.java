@@ -0,0 +1,186 @@
+package com.simplesdental.product.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.product.cache.TwoLevelCache;
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.logging.LoggerWrapper;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relays the {@code outbox} to Redis. Recorded keys are evicted from the L2, from this node's L1 and, through
+ * the invalidation channel, from the other nodes' L1; recorded catalog events are published.
+ * Each run claims a batch with {@code FOR UPDATE SKIP LOCKED}, so every node can relay without two nodes
+ * sending the same rows, and deletes it in the same transaction. Evictions are grouped per cache into one
+ * Redis call and run before the events, so a client reacting to an event reads the new value.
+ * When Redis fails the batch rolls back and is retried: delivery is at least once.
+ * The relay is woken after every commit that wrote to the outbox, and also runs every
+ * {@code app.outbox.poll-interval} to pick up rows left behind by a Redis outage or a node that stopped.
+ */
+@Component
+public class OutboxRelay implements DisposableBean {
+
+    private static final String CLAIM_BATCH =
+        "SELECT id, kind, cache_name, cache_key, payload FROM outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_RELAYED = "DELETE FROM outbox WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, CatalogEvent> catalogEventTemplate;
+    private final ObjectMapper objectMapper;
+    private final String catalogEventChannel;
+    private final int batchSize;
+    private final ExecutorService wakeUps = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final LoggerWrapper logger = new LoggerWrapper(OutboxRelay.class);
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, CacheManager cacheManager,
+                       RedisTemplate<String, CatalogEvent> catalogEventTemplate, ObjectMapper objectMapper,
+                       @Value("${app.stream.channel:catalog-events}") String catalogEventChannel,
+                       @Value("${app.outbox.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.catalogEventTemplate = catalogEventTemplate;
+        this.objectMapper = objectMapper;
+        this.catalogEventChannel = catalogEventChannel;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Schedules a run on the relay thread without waiting for it; wake-ups that arrive before it starts are merged.
+     */
+    public void wake() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            wakeUps.execute(() -> {
+                wakeUpPending.set(false);
+                relay();
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; whatever is left is relayed by another node or after the restart.
+            wakeUpPending.set(false);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.outbox.poll-interval:PT1S}",
+        fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public synchronized void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (Exception e) {
+            logger.warn("Could not relay the outbox, retrying on the next run: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        wakeUps.shutdownNow();
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> messages = jdbcTemplate.query(CLAIM_BATCH, OutboxRelay::toMessage, batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        evict(messages);
+        messages.stream().filter(message -> message.kind() == OutboxMessage.Kind.EVENT).forEach(this::publish);
+
+        var ids = messages.stream().map(OutboxMessage::id).toArray(Long[]::new);
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(DELETE_RELAYED);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        });
+        logger.debug("Relayed {} outbox messages", messages.size());
+        return messages.size();
+    }
+
+    private void evict(List<OutboxMessage> messages) {
+        Set<String> cleared = new LinkedHashSet<>();
+        var evictions = new LinkedHashMap<String, Set<String>>();
+        for (var message : messages) {
+            if (message.kind() == OutboxMessage.Kind.CLEAR) {
+                cleared.add(message.cacheName());
+            } else if (message.kind() == OutboxMessage.Kind.EVICT) {
+                evictions.computeIfAbsent(message.cacheName(), name -> new LinkedHashSet<>()).add(message.cacheKey());
+            }
+        }
+
+        // A clear relayed in the same batch already covers the keys of that cache.
+        for (var cacheName : cleared) {
+            evictions.remove(cacheName);
+            var cache = cache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        evictions.forEach((cacheName, keys) -> {
+            var cache = cache(cacheName);
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                twoLevelCache.evictAll(keys);
+            } else if (cache != null) {
+                keys.forEach(cache::evict);
+            }
+        });
+    }
+
+    private void publish(OutboxMessage message) {
+        CatalogEvent event;
+        try {
+            event = objectMapper.readValue(message.payload(), CatalogEvent.class);
+        } catch (JsonProcessingException e) {
+            // Retrying cannot fix it, and keeping it would hold up every message behind it.
+            logger.error("Dropping unreadable catalog event {}: {}", message.id(), e.getMessage());
+            return;
+        }
+        catalogEventTemplate.convertAndSend(catalogEventChannel, event);
+    }
+
+    // Evicts right away: the transaction-aware decorator would wait for the relay's own commit, after the rows are gone.
+    private Cache cache(String name) {
+        var cache = cacheManager.getCache(name);
+        if (cache == null) {
+            logger.warn("Dropping outbox messages for unknown cache {}", name);
+            return null;
+        }
+        return cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+
+    private static OutboxMessage toMessage(ResultSet rs, int rowNum) throws SQLException {
+        return new OutboxMessage(rs.getLong("id"), OutboxMessage.Kind.valueOf(rs.getString("kind")),
+            rs.getString("cache_name"), rs.getString("cache_key"), rs.getString("payload"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.simplesdental.product.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.product.events.CatalogEvent;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Records cache evictions and catalog events in the {@code outbox} table, inside the transaction of the change
+ * that causes them: they take effect when that change commits and never when it rolls back.
+ * Nothing here calls Redis. {@link OutboxRelay} does, right after the commit.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxWriter {
+
+    private static final String INSERT_EVICTIONS =
+        "INSERT INTO outbox (kind, cache_name, cache_key) SELECT 'EVICT', ?, unnest(CAST(? AS TEXT[]))";
+
+    private static final String INSERT_CLEAR = "INSERT INTO outbox (kind, cache_name) VALUES ('CLEAR', ?)";
+
+    private static final String INSERT_EVENT = "INSERT INTO outbox (kind, payload) VALUES ('EVENT', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay outboxRelay;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, OutboxRelay outboxRelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxRelay = outboxRelay;
+    }
+
+    public void evict(String cacheName, Object key) {
+        evictAll(cacheName, List.of(key));
+    }
+
+    /**
+     * Evicts the keys from the cache, compared by their string form as the caches do.
+     */
+    public void evictAll(String cacheName, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        var cacheKeys = keys.stream().map(String::valueOf).distinct().toArray(String[]::new);
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(INSERT_EVICTIONS);
+            statement.setString(1, cacheName);
+            statement.setArray(2, connection.createArrayOf("text", cacheKeys));
+            return statement;
+        });
+        wakeRelayAfterCommit();
+    }
+
+    public void clear(String cacheName) {
+        jdbcTemplate.update(INSERT_CLEAR, cacheName);
+        wakeRelayAfterCommit();
+    }
+
+    public void publish(CatalogEvent event) {
+        try {
+            jdbcTemplate.update(INSERT_EVENT, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog event " + event.name(), e);
+        }
+        wakeRelayAfterCommit();
+    }
+
+    private void wakeRelayAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wake();
+            }
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.simplesdental.product.pagination;
+
+import com.simplesdental.product.exception.BusinessException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last change returned by the change feed: the writing transaction and the sequence number of
+ * the write. {@link #START} precedes every change, so it is where a mirror's first sync begins.
+ */
+public record ChangeCursor(long transactionId, long sequence) {
+
+    public static final ChangeCursor START = new ChangeCursor(0, 0);
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = transactionId + SEPARATOR + sequence;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Unexpected cursor layout");
+            }
+            long transactionId = Long.parseLong(parts[0]);
+            long sequence = Long.parseLong(parts[1]);
+            if (transactionId < 0 || sequence < 0) {
+                throw new IllegalArgumentException("Negative cursor position");
+            }
+            return new ChangeCursor(transactionId, sequence);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor de sincronização inválido.", e);
+        }
+    }
+}
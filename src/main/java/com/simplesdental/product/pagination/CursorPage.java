@@ -0,0 +1,18 @@
+package com.simplesdental.product.pagination;
+
+import java.util.List;
+
+/**
+ * Forward-only page of results addressed by an opaque cursor instead of an offset.
+ * No total is computed; {@code next} is {@code null} on the last page.
+ */
+public record CursorPage<T>(
+    List<T> content,
+    int size,
+    String next
+) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
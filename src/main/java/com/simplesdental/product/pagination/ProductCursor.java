@@ -0,0 +1,33 @@
+package com.simplesdental.product.pagination;
+
+import com.simplesdental.product.exception.BusinessException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last product returned by a keyset page: the sort key value plus the id used as
+ * tie-breaker. Serialized as URL-safe base64 so clients treat it as opaque.
+ */
+public record ProductCursor(ProductSortKey sortKey, String key, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sortKey.parameter() + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Unexpected cursor layout");
+            }
+            return new ProductCursor(ProductSortKey.fromParameter(parts[0]), parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor de paginação inválido.", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.simplesdental.product.pagination;
+
+import com.simplesdental.product.exception.BusinessException;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Columns a product listing can be keyset-paginated on. Every key is paired with the id as a
+ * tie-breaker, so each one needs a matching {@code (column, id)} index.
+ */
+public enum ProductSortKey {
+    ID("id", product -> String.valueOf(product.id())),
+    NAME("name", ProductSummary::name),
+    PRICE("price", product -> product.price().toPlainString());
+
+    private final String parameter;
+    private final Function<ProductSummary, String> extractor;
+
+    ProductSortKey(String parameter, Function<ProductSummary, String> extractor) {
+        this.parameter = parameter;
+        this.extractor = extractor;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    public String keyOf(ProductSummary product) {
+        return extractor.apply(product);
+    }
+
+    public static ProductSortKey fromParameter(String parameter) {
+        return Arrays.stream(values())
+            .filter(key -> key.parameter.equalsIgnoreCase(parameter))
+            .findFirst()
+            .orElseThrow(() -> new BusinessException(
+                "Ordenação não suportada: " + parameter + ". Valores aceitos: id, name, price."));
+    }
+}
@@ -0,0 +1,33 @@
+package com.simplesdental.product.pagination;
+
+import com.simplesdental.product.exception.BusinessException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last product returned by a search page: its relevance score plus the id used as tie-breaker.
+ * The score is kept as the exact float the database computed, so the next page resumes right after it.
+ */
+public record SearchCursor(float score, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = Float.floatToIntBits(score) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Unexpected cursor layout");
+            }
+            return new SearchCursor(Float.intBitsToFloat(Integer.parseInt(parts[0])), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor de paginação inválido.", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.simplesdental.product.pagination;
+
+import java.util.List;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Page of results computed without a {@code count(*)}: the repository fetches one row beyond the
+ * page size to fill {@code hasNext}. {@code approximateTotal} is an optional planner estimate, not
+ * an exact row count.
+ */
+public record SliceResponse<T>(
+    List<T> content,
+    int number,
+    int size,
+    boolean hasNext,
+    Long approximateTotal
+) {
+
+    public static <T> SliceResponse<T> of(Slice<T> slice, Long approximateTotal) {
+        return new SliceResponse<>(
+            slice.getContent(),
+            slice.getNumber(),
+            slice.getSize(),
+            slice.hasNext(),
+            approximateTotal);
+    }
+}
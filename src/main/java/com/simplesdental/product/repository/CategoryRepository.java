@@ -1,9 +1,20 @@
 package com.simplesdental.product.repository;
 
 import com.simplesdental.product.model.Category;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-}
\ No newline at end of file
+
+    // Slice return type makes Spring Data fetch size + 1 rows instead of issuing a count query.
+    Slice<Category> findAllBy(Pageable pageable);
+
+    // Planner statistics; -1 when the table has never been analyzed.
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('categories' AS regclass)",
+        nativeQuery = true)
+    Long estimateCount();
+}
@@ -0,0 +1,90 @@
+package com.simplesdental.product.repository;
+
+import com.simplesdental.product.pagination.ChangeCursor;
+import com.simplesdental.product.repository.projection.ProductChange;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads the catalog change feed from the change stamps kept by the V11 triggers: written products and the
+ * tombstones of deleted ones, in (transaction, sequence) order after a cursor.
+ * Only changes of transactions older than the oldest one still running are returned. A transaction that is
+ * still open may commit rows at earlier positions, so the feed waits for it instead of skipping past them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductChangeRepository {
+
+    // Each branch reads its own (change_xid, change_seq) index up to the limit before the two are merged.
+    private static final String CHANGES_AFTER =
+        "SELECT type, id, name, description, price, status, code, category_id, category_name, category_description, "
+            + "changed_at, CAST(change_xid AS TEXT) AS change_xid, change_seq FROM ("
+            + "(SELECT 'UPSERT' AS type, p.id, p.name, p.description, p.price, p.status, p.code, "
+            + "c.id AS category_id, c.name AS category_name, c.description AS category_description, "
+            + "p.updated_at AS changed_at, p.change_xid, p.change_seq "
+            + "FROM products p JOIN categories c ON c.id = p.category_id "
+            + "WHERE (p.change_xid, p.change_seq) > (CAST(:xid AS xid8), :seq) "
+            + "AND p.change_xid < pg_snapshot_xmin(pg_current_snapshot()) "
+            + "ORDER BY p.change_xid, p.change_seq LIMIT :limit) "
+            + "UNION ALL "
+            + "(SELECT 'DELETE', t.id, NULL, NULL, NULL, NULL, t.code, NULL, NULL, NULL, "
+            + "t.deleted_at, t.change_xid, t.change_seq "
+            + "FROM product_tombstones t "
+            + "WHERE (t.change_xid, t.change_seq) > (CAST(:xid AS xid8), :seq) "
+            + "AND t.change_xid < pg_snapshot_xmin(pg_current_snapshot()) "
+            + "ORDER BY t.change_xid, t.change_seq LIMIT :limit)"
+            + ") changes ORDER BY changes.change_xid, changes.change_seq LIMIT :limit";
+
+    private static final String HORIZON =
+        "SELECT CAST(pg_snapshot_xmin(s) AS TEXT) AS xmin, pg_snapshot_xmin(s) = pg_snapshot_xmax(s) AS settled "
+            + "FROM pg_current_snapshot() s";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<ProductChange> findAfter(ChangeCursor cursor, int limit) {
+        return jdbcTemplate.query(CHANGES_AFTER,
+            Map.of("xid", Long.toString(cursor.transactionId()), "seq", cursor.sequence(), "limit", limit),
+            ProductChangeRepository::toChange);
+    }
+
+    /**
+     * Returns where the feed stands now: the position just before the oldest transaction still running, so
+     * {@link #findAfter} from it returns every change a query starting now does not see yet.
+     */
+    public Horizon horizon() {
+        return jdbcTemplate.queryForObject(HORIZON, Map.of(), (rs, rowNum) -> new Horizon(
+            new ChangeCursor(Long.parseLong(rs.getString("xmin")) - 1, Long.MAX_VALUE),
+            rs.getBoolean("settled")));
+    }
+
+    /**
+     * Position just before the oldest running transaction; {@code settled} when no transaction is running, so
+     * every committed change is already in the feed.
+     */
+    public record Horizon(ChangeCursor position, boolean settled) {
+    }
+
+    private static ProductChange toChange(ResultSet rs, int rowNum) throws SQLException {
+        var type = ProductChange.Type.valueOf(rs.getString("type"));
+        var product = type == ProductChange.Type.DELETE ? null : new ProductSummary(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("description"),
+            rs.getBigDecimal("price"),
+            rs.getObject("status", Boolean.class),
+            rs.getObject("code", Integer.class),
+            rs.getLong("category_id"),
+            rs.getString("category_name"),
+            rs.getString("category_description"));
+        var position = new ChangeCursor(Long.parseLong(rs.getString("change_xid")), rs.getLong("change_seq"));
+        return new ProductChange(type, rs.getLong("id"), product, rs.getObject("changed_at", OffsetDateTime.class),
+            position);
+    }
+}
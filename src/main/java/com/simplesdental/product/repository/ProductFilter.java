@@ -0,0 +1,33 @@
+package com.simplesdental.product.repository;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import java.math.BigDecimal;
+
+/**
+ * Optional criteria for product listings; null fields are not applied.
+ */
+public record ProductFilter(
+    @Parameter(description = "Only products of this category")
+    Long categoryId,
+
+    @Parameter(description = "Only active (true) or inactive (false) products")
+    Boolean status,
+
+    @Parameter(description = "Minimum price, inclusive")
+    BigDecimal minPrice,
+
+    @Parameter(description = "Maximum price, inclusive")
+    BigDecimal maxPrice,
+
+    @Parameter(description = "Case-insensitive prefix of the product name")
+    String namePrefix) {
+
+    public static ProductFilter none() {
+        return new ProductFilter(null, null, null, null, null);
+    }
+
+    public boolean isEmpty() {
+        return categoryId == null && status == null && minPrice == null && maxPrice == null
+            && (namePrefix == null || namePrefix.isBlank());
+    }
+}
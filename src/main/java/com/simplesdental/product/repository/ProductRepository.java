@@ -1,9 +1,87 @@
 package com.simplesdental.product.repository;
 
+import com.simplesdental.product.cache.ProductCacheKey;
 import com.simplesdental.product.model.Product;
+import com.simplesdental.product.repository.projection.ProductName;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-}
\ No newline at end of file
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    // Product.category is lazy; entity reads fetch it in the same statement instead of one select per row.
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findById(Long id);
+
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findByCode(Integer code);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    @Query("select p.code from Product p where p.code in :codes")
+    List<Integer> findExistingCodes(@Param("codes") Collection<Integer> codes);
+
+    String SUMMARY_SELECT = "select new com.simplesdental.product.repository.projection.ProductSummary("
+        + "p.id, p.name, p.description, p.price, p.status, p.code, c.id, c.name, c.description) "
+        + "from Product p join p.category c ";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "select count(p) from Product p")
+    Page<ProductSummary> findAllSummaries(Pageable pageable);
+
+    // Slice return type makes Spring Data fetch size + 1 rows instead of issuing a count query.
+    @Query(SUMMARY_SELECT)
+    Slice<ProductSummary> findSummarySlice(Pageable pageable);
+
+    @Query("select new com.simplesdental.product.repository.projection.ProductName(p.id, p.name) from Product p")
+    List<ProductName> findAllNames();
+
+    @Query("select p.id from Product p")
+    List<Long> findAllIds();
+
+    @Query("select new com.simplesdental.product.cache.ProductCacheKey(p.id, p.code) from Product p "
+        + "where p.category.id = :categoryId")
+    List<ProductCacheKey> findCacheKeysByCategoryId(@Param("categoryId") Long categoryId);
+
+    // Planner statistics; -1 when the table has never been analyzed.
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('products' AS regclass)",
+        nativeQuery = true)
+    Long estimateCount();
+
+    // Keyset queries: callers pass an unsorted PageRequest.of(0, limit) so only LIMIT is applied,
+    // and returning List skips the count query that Page would trigger.
+
+    @Query(SUMMARY_SELECT + "order by p.id asc")
+    List<ProductSummary> findFirstOrderById(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "where p.id > :id order by p.id asc")
+    List<ProductSummary> findAfterOrderById(@Param("id") Long id, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "order by p.name asc, p.id asc")
+    List<ProductSummary> findFirstOrderByName(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "where (p.name, p.id) > (:name, :id) order by p.name asc, p.id asc")
+    List<ProductSummary> findAfterOrderByName(@Param("name") String name, @Param("id") Long id, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "order by p.price asc, p.id asc")
+    List<ProductSummary> findFirstOrderByPrice(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "where (p.price, p.id) > (:price, :id) order by p.price asc, p.id asc")
+    List<ProductSummary> findAfterOrderByPrice(@Param("price") BigDecimal price, @Param("id") Long id, Pageable limit);
+}
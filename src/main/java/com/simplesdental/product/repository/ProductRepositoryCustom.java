@@ -0,0 +1,16 @@
+package com.simplesdental.product.repository;
+
+import com.simplesdental.product.repository.projection.ProductSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Filtered listings, built with the Criteria API so only the given filters end up in the WHERE clause.
+ */
+public interface ProductRepositoryCustom {
+
+    Page<ProductSummary> findSummaries(ProductFilter filter, Pageable pageable);
+
+    Slice<ProductSummary> findSummarySlice(ProductFilter filter, Pageable pageable);
+}
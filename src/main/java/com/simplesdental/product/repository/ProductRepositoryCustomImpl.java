@@ -0,0 +1,103 @@
+package com.simplesdental.product.repository;
+
+import com.simplesdental.product.model.Product;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductSummary> findSummaries(ProductFilter filter, Pageable pageable) {
+        var content = select(filter, pageable, pageable.isPaged() ? pageable.getPageSize() : null);
+        // Skips the count when the first page is not full or the last page is reached.
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Slice<ProductSummary> findSummarySlice(ProductFilter filter, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(select(filter, pageable, null), pageable, false);
+        }
+
+        // One extra row tells whether another slice exists without counting.
+        var content = select(filter, pageable, pageable.getPageSize() + 1);
+        var hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private List<ProductSummary> select(ProductFilter filter, Pageable pageable, Integer limit) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(ProductSummary.class);
+        var product = query.from(Product.class);
+        var category = product.join("category");
+
+        query.select(cb.construct(ProductSummary.class,
+                product.get("id"), product.get("name"), product.get("description"), product.get("price"),
+                product.get("status"), product.get("code"),
+                category.get("id"), category.get("name"), category.get("description")))
+            .where(predicates(cb, product, filter))
+            .orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    private long count(ProductFilter filter) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Long.class);
+        var product = query.from(Product.class);
+        query.select(cb.count(product)).where(predicates(cb, product, filter));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Product> product, ProductFilter filter) {
+        var predicates = new ArrayList<Predicate>();
+
+        if (filter.categoryId() != null) {
+            // Compares the foreign key column; no join needed.
+            predicates.add(cb.equal(product.get("category").get("id"), filter.categoryId()));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(product.get("status"), filter.status()));
+        }
+        if (filter.minPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("price"), filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("price"), filter.maxPrice()));
+        }
+        if (filter.namePrefix() != null && !filter.namePrefix().isBlank()) {
+            // Matches the lower(name) text_pattern_ops index, which serves left-anchored LIKE.
+            var prefix = escapeLike(filter.namePrefix().toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.like(cb.lower(product.get("name")), prefix, LIKE_ESCAPE));
+        }
+
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
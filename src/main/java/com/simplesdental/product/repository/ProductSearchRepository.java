@@ -0,0 +1,64 @@
+package com.simplesdental.product.repository;
+
+import com.simplesdental.product.repository.projection.ProductSearchHit;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Ranked product search over the generated {@code search_vector} column (GIN) and trigrams of the name (pg_trgm).
+ * A product matches when the words match its name or description after Portuguese stemming, or when the query
+ * is close enough to a part of the name to survive typos. Results are ordered by score, then id, and pages
+ * continue from the last (score, id) instead of an offset.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductSearchRepository {
+
+    private static final String RANKED_MATCHES =
+        "SELECT * FROM ("
+            + "SELECT p.id, p.name, p.description, p.price, p.status, p.code, "
+            + "c.id AS category_id, c.name AS category_name, c.description AS category_description, "
+            + "CAST(ts_rank(p.search_vector, websearch_to_tsquery('portuguese', :query)) "
+            + "+ word_similarity(lower(:query), lower(p.name)) AS REAL) AS score "
+            + "FROM products p JOIN categories c ON c.id = p.category_id "
+            + "WHERE p.search_vector @@ websearch_to_tsquery('portuguese', :query) "
+            + "OR lower(:query) <% lower(p.name)) ranked ";
+
+    private static final String ORDER_AND_LIMIT = "ORDER BY score DESC, id ASC LIMIT :limit";
+
+    private static final String SEARCH_FIRST = RANKED_MATCHES + ORDER_AND_LIMIT;
+
+    private static final String SEARCH_AFTER = RANKED_MATCHES
+        + "WHERE score < CAST(:score AS REAL) OR (score = CAST(:score AS REAL) AND id > :id) " + ORDER_AND_LIMIT;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<ProductSearchHit> searchFirst(String query, int limit) {
+        return jdbcTemplate.query(SEARCH_FIRST, Map.of("query", query, "limit", limit), ProductSearchRepository::toHit);
+    }
+
+    public List<ProductSearchHit> searchAfter(String query, float score, Long id, int limit) {
+        return jdbcTemplate.query(SEARCH_AFTER,
+            Map.of("query", query, "score", score, "id", id, "limit", limit), ProductSearchRepository::toHit);
+    }
+
+    private static ProductSearchHit toHit(ResultSet rs, int rowNum) throws SQLException {
+        var product = new ProductSummary(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("description"),
+            rs.getBigDecimal("price"),
+            rs.getObject("status", Boolean.class),
+            rs.getObject("code", Integer.class),
+            rs.getLong("category_id"),
+            rs.getString("category_name"),
+            rs.getString("category_description"));
+        return new ProductSearchHit(product, rs.getFloat("score"));
+    }
+}
@@ -0,0 +1,7 @@
+package com.simplesdental.product.repository.projection;
+
+public record CategorySummary(
+    Long id,
+    String name,
+    String description
+) {}
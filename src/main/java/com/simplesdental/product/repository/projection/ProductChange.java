@@ -0,0 +1,23 @@
+package com.simplesdental.product.repository.projection;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.simplesdental.product.pagination.ChangeCursor;
+import java.time.OffsetDateTime;
+
+/**
+ * A product written or deleted since a mirror's last sync. {@code product} holds its current state and is
+ * {@code null} for deletions.
+ */
+public record ProductChange(
+    Type type,
+    Long id,
+    ProductSummary product,
+    OffsetDateTime changedAt,
+    @JsonIgnore ChangeCursor position
+) {
+
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+}
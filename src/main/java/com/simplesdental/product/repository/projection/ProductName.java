@@ -0,0 +1,6 @@
+package com.simplesdental.product.repository.projection;
+
+/**
+ * Id and name only, for loading the suggestion index without reading whole rows.
+ */
+public record ProductName(Long id, String name) {}
@@ -0,0 +1,6 @@
+package com.simplesdental.product.repository.projection;
+
+/**
+ * A search match with the relevance score it was ranked by.
+ */
+public record ProductSearchHit(ProductSummary product, float score) {}
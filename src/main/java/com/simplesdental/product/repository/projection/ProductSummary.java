@@ -0,0 +1,27 @@
+package com.simplesdental.product.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only view of a product and its category, selected column by column so listings skip
+ * entity instantiation, dirty-checking snapshots and the Hibernate-aware serializer.
+ */
+public record ProductSummary(
+    Long id,
+    String name,
+    String description,
+    BigDecimal price,
+    Boolean status,
+    Integer code,
+    CategorySummary category
+) {
+
+    /**
+     * Flat constructor used by JPQL constructor expressions, which cannot build nested records.
+     */
+    public ProductSummary(Long id, String name, String description, BigDecimal price, Boolean status,
+        Integer code, Long categoryId, String categoryName, String categoryDescription) {
+        this(id, name, description, price, status, code,
+            new CategorySummary(categoryId, categoryName, categoryDescription));
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,9 +26,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final int BEARER_PREFIX_LENGTH = BEARER_PREFIX.length();
 
     private final JwtTokenProvider tokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserDetailsService userDetailsService;
+    private final UserStateService userStateService;
     private final LoggerWrapper log = new LoggerWrapper(JwtAuthenticationFilter.class);
 
+    @Value("${app.security.stateless-auth:false}")
+    private boolean statelessAuth;
+
+    @Value("${app.security.revocation-check:false}")
+    private boolean revocationCheck;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -55,13 +64,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     private void validateAndAuthenticateToken(String jwt, HttpServletRequest request) {
-        if (tokenProvider.validateToken(jwt)) {
-            String username = tokenProvider.getUsernameFromToken(jwt);
-            log.debug("Valid JWT token for user: {}", username);
-            authenticateUser(username, request);
+        verifiedTokenCache.getOrVerify(jwt, tokenProvider::parseAndValidate).ifPresentOrElse(
+                claims -> authenticateToken(claims, request),
+                () -> log.warn("Invalid JWT token received"));
+    }
+
+    private void authenticateToken(TokenClaims claims, HttpServletRequest request) {
+        log.debug("Valid JWT token for user: {}", claims.subject());
+        if (statelessAuth && claims.hasUserClaims()) {
+            authenticateFromClaims(claims, request);
         } else {
-            log.warn("Invalid JWT token received");
+            // Tokens issued before the user claims existed still load the user.
+            authenticateUser(claims.subject(), request);
+        }
+    }
+
+    /**
+     * Authenticates from the token claims without touching the users table.
+     */
+    private void authenticateFromClaims(TokenClaims claims, HttpServletRequest request) {
+        JwtPrincipal principal = claims.toPrincipal();
+        if (revocationCheck && !isStillValid(principal)) {
+            log.warn("Revoked JWT token received for user: {}", principal.email());
+            return;
         }
+
+        UsernamePasswordAuthenticationToken authentication = claims.toAuthentication();
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        log.info("User {} authenticated successfully", principal.email());
+    }
+
+    private boolean isStillValid(JwtPrincipal principal) {
+        UserState state = userStateService.getUserState(principal.email());
+        return state != null && state.isSatisfiedBy(principal);
     }
 
     private void authenticateUser(String username, HttpServletRequest request) {
@@ -0,0 +1,17 @@
+package com.simplesdental.product.security;
+
+import com.simplesdental.product.model.UserRole;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal rebuilt from the token claims, so authenticated requests don't need to load the user.
+ * {@link #getName()} returns the email, matching what {@code User.getUsername()} returns.
+ */
+public record JwtPrincipal(String email, Long userId, UserRole role, String credentialVersion)
+    implements AuthenticatedPrincipal {
+
+  @Override
+  public String getName() {
+    return email;
+  }
+}
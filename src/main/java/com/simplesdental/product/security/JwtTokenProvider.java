@@ -1,17 +1,17 @@
 package com.simplesdental.product.security;
 
 import com.simplesdental.product.logging.LoggerWrapper;
+import com.simplesdental.product.model.User;
+import com.simplesdental.product.model.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
-import lombok.AllArgsConstructor;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -19,20 +19,24 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 @Component
-@RequiredArgsConstructor
-@AllArgsConstructor
 public class JwtTokenProvider {
-  @Value("${app.jwt.secret}")
-  private String jwtSecret;
+  private static final String AUTHORITIES_CLAIM = "authorities";
+  private static final String USER_ID_CLAIM = "uid";
+  private static final String ROLE_CLAIM = "role";
+  private static final String CREDENTIAL_VERSION_CLAIM = "cv";
 
-  @Value("${app.jwt.expiration}")
-  private long jwtExpirationInMs;
+  private final long jwtExpirationInMs;
+  private final Key signingKey;
+  private final JwtParser parser;
 
-  private LoggerWrapper log = new LoggerWrapper(JwtAuthenticationFilter.class);
+  private final LoggerWrapper log = new LoggerWrapper(JwtTokenProvider.class);
 
-  private Key getSigningKey() {
-    byte[] keyBytes = jwtSecret.getBytes();
-    return Keys.hmacShaKeyFor(keyBytes);
+  // The key and parser are immutable and thread-safe, so they are built once and shared by every request.
+  public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret,
+      @Value("${app.jwt.expiration}") long jwtExpirationInMs) {
+    this.jwtExpirationInMs = jwtExpirationInMs;
+    this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
   }
 
   public String generateToken(Authentication authentication) {
@@ -45,47 +49,51 @@ public class JwtTokenProvider {
         .map(GrantedAuthority::getAuthority)
         .collect(Collectors.joining(","));
 
-    return Jwts.builder()
+    JwtBuilder builder = Jwts.builder()
         .setSubject(userPrincipal.getUsername())
-        .claim("authorities", authorities)
+        .claim(AUTHORITIES_CLAIM, authorities)
         .setIssuedAt(now)
-        .setExpiration(expiryDate)
-        .signWith(getSigningKey())
-        .compact();
-  }
+        .setExpiration(expiryDate);
 
-  public String getUsernameFromToken(String token) {
-    Claims claims = Jwts.parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    if (userPrincipal instanceof User user) {
+      builder.claim(USER_ID_CLAIM, user.getId())
+          .claim(ROLE_CLAIM, user.getRole().name())
+          .claim(CREDENTIAL_VERSION_CLAIM, UserState.credentialVersionOf(user.getPassword()));
+    }
 
-    return claims.getSubject();
+    return builder.signWith(signingKey).compact();
   }
 
-  public boolean validateToken(String token) {
+  /**
+   * Verifies the signature and expiration and reads the claims in a single pass.
+   * Returns empty when the token is invalid.
+   */
+  public Optional<TokenClaims> parseAndValidate(String token) {
     try {
-      Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-      return true;
+      return Optional.of(toTokenClaims(parser.parseClaimsJws(token).getBody()));
     } catch (Exception e) {
       log.error("Invalid JWT token: {}", e.getMessage());
-      return false;
+      return Optional.empty();
     }
   }
 
-  public Authentication getAuthentication(String token) {
-    Claims claims = Jwts.parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+  private TokenClaims toTokenClaims(Claims claims) {
+    Number userId = claims.get(USER_ID_CLAIM, Number.class);
+    String role = claims.get(ROLE_CLAIM, String.class);
+    String authorities = claims.get(AUTHORITIES_CLAIM, String.class);
 
-    Collection<? extends GrantedAuthority> authorities = ((List<String>) claims.get("roles", List.class))
-        .stream()
-        .map(SimpleGrantedAuthority::new)
-        .toList();
+    List<GrantedAuthority> grantedAuthorities = authorities == null || authorities.isBlank()
+        ? List.of()
+        : Arrays.stream(authorities.split(","))
+            .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+            .toList();
 
-    return new UsernamePasswordAuthenticationToken(claims.getSubject(), null, authorities);
+    return new TokenClaims(
+        claims.getSubject(),
+        userId == null ? null : userId.longValue(),
+        role == null ? null : UserRole.valueOf(role),
+        claims.get(CREDENTIAL_VERSION_CLAIM, String.class),
+        grantedAuthorities,
+        claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
   }
 }
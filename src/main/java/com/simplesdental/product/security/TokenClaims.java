@@ -0,0 +1,27 @@
+package com.simplesdental.product.security;
+
+import com.simplesdental.product.model.UserRole;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Claims of a token whose signature and expiration were already verified.
+ * {@code userId} and {@code role} are null for tokens issued before those claims existed.
+ */
+public record TokenClaims(String subject, Long userId, UserRole role, String credentialVersion,
+                          List<GrantedAuthority> authorities, Instant expiresAt) {
+
+  public boolean hasUserClaims() {
+    return userId != null && role != null;
+  }
+
+  public JwtPrincipal toPrincipal() {
+    return new JwtPrincipal(subject, userId, role, credentialVersion);
+  }
+
+  public UsernamePasswordAuthenticationToken toAuthentication() {
+    return new UsernamePasswordAuthenticationToken(toPrincipal(), null, authorities);
+  }
+}
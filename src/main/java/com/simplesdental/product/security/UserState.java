@@ -0,0 +1,35 @@
+package com.simplesdental.product.security;
+
+import com.simplesdental.product.model.User;
+import com.simplesdental.product.model.UserRole;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * The parts of a user that can invalidate an issued token.
+ * The credential version is derived from the password hash, so it changes whenever the password does.
+ */
+public record UserState(Long id, UserRole role, String credentialVersion) {
+
+  public static UserState fromUser(User user) {
+    return new UserState(user.getId(), user.getRole(), credentialVersionOf(user.getPassword()));
+  }
+
+  public static String credentialVersionOf(String passwordHash) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(passwordHash.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest, 0, 8);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  public boolean isSatisfiedBy(JwtPrincipal principal) {
+    return Objects.equals(id, principal.userId())
+        && role == principal.role()
+        && Objects.equals(credentialVersion, principal.credentialVersion());
+  }
+}
@@ -0,0 +1,26 @@
+package com.simplesdental.product.security;
+
+import com.simplesdental.product.config.CacheNames;
+import com.simplesdental.product.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class UserStateService {
+
+  private final UserRepository userRepository;
+
+  /**
+   * Returns the current state of the user, or {@code null} when the user no longer exists.
+   * Cached briefly, so a revoked token may be accepted until the entry expires or is evicted.
+   * Missing users are cached too, for {@code app.cache.ttl.not-found}, until the email is registered.
+   */
+  @Cacheable(value = CacheNames.USER_STATE, key = "#email", sync = true)
+  public UserState getUserState(String email) {
+    return userRepository.findByEmail(email)
+        .map(UserState::fromUser)
+        .orElse(null);
+  }
+}
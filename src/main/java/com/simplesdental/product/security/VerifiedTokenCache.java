@@ -0,0 +1,76 @@
+package com.simplesdental.product.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the claims of tokens that already passed verification, so repeat tokens skip the
+ * signature check and claim parsing. Entries are keyed by a digest of the token, never the token
+ * itself, and expire together with the token. Invalid tokens are never cached.
+ * Hit and miss counts are published as the {@code cache.gets} metric tagged {@code cache=verifiedTokens}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+  static final String CACHE_NAME = "verifiedTokens";
+
+  private final Cache<String, TokenClaims> cache;
+
+  public VerifiedTokenCache(@Value("${app.jwt.verified-cache.maximum-size:10000}") long maximumSize,
+      MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfter(new UntilTokenExpires())
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  public Optional<TokenClaims> getOrVerify(String token, Function<String, Optional<TokenClaims>> verifier) {
+    return Optional.ofNullable(cache.get(digest(token), key -> verifier.apply(token).orElse(null)));
+  }
+
+  private static String digest(String token) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static class UntilTokenExpires implements Expiry<String, TokenClaims> {
+
+    @Override
+    public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+      // Tokens without an expiration are not kept.
+      if (claims.expiresAt() == null) {
+        return 0;
+      }
+      return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
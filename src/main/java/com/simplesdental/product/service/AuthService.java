@@ -1,18 +1,21 @@
 package com.simplesdental.product.service;
 
+import com.simplesdental.product.config.CacheNames;
 import com.simplesdental.product.controller.dto.auth.AuthRequest;
 import com.simplesdental.product.controller.dto.auth.AuthResponse;
 import com.simplesdental.product.controller.dto.auth.UserContextDTO;
 import com.simplesdental.product.controller.dto.auth.UserRequest;
 import com.simplesdental.product.exception.BusinessException;
 import com.simplesdental.product.exception.ResourceNotFoundException;
+import com.simplesdental.product.exception.ServiceUnavailableException;
 import com.simplesdental.product.logging.LoggerWrapper;
 import com.simplesdental.product.model.User;
 import com.simplesdental.product.model.UserRole;
+import com.simplesdental.product.outbox.OutboxWriter;
 import com.simplesdental.product.repository.UserRepository;
 import com.simplesdental.product.security.JwtTokenProvider;
+import com.simplesdental.product.security.UserStateService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,7 +23,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +33,9 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtUtils;
+    private final OutboxWriter outboxWriter;
+    private final UserStateService userStateService;
+    private final TransactionTemplate transactionTemplate;
     private final LoggerWrapper logger = new LoggerWrapper(AuthService.class);
 
     public AuthResponse login(AuthRequest request) {
@@ -44,12 +50,19 @@ public class AuthService {
 
             logger.info("Login successful for user: {}", request.email());
             return new AuthResponse(jwt, userDetails.getId(), userDetails.getUsername(), userDetails.getRole().name());
+        } catch (ServiceUnavailableException e) {
+            logger.warn("Login rejected for user {}: {}", request.email(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.error("Login failed for user {}: {}", request.email(), e.getMessage());
             throw new BusinessException("Authentication failed", e);
         }
     }
 
+    /**
+     * The password is hashed before the transaction starts, so a request waiting for a hashing slot holds no
+     * database connection.
+     */
     public User register(UserRequest request) {
         logger.info("Attempting to register new user: {}", request.email());
         try {
@@ -65,10 +78,16 @@ public class AuthService {
                 .role(UserRole.USER)
                 .build();
 
-            User savedUser = userRepository.save(user);
+            User savedUser = transactionTemplate.execute(status -> {
+                User saved = userRepository.save(user);
+                // Drops not-found entries cached for the email before it was registered.
+                outboxWriter.evict(CacheNames.USER_CONTEXT, request.email());
+                outboxWriter.evict(CacheNames.USER_STATE, request.email());
+                return saved;
+            });
             logger.info("User registered successfully: {}", request.email());
             return savedUser;
-        } catch (BusinessException e) {
+        } catch (BusinessException | ServiceUnavailableException e) {
             throw e;
         } catch (Exception e) {
             logger.error("Error registering user {}: {}", request.email(), e.getMessage());
@@ -76,10 +95,17 @@ public class AuthService {
         }
     }
 
-    @Cacheable(value = "userContext", key = "#email")
+    /**
+     * Unknown emails are answered from the user state cache, which also caches misses, before querying for the user.
+     */
+    @Cacheable(value = CacheNames.USER_CONTEXT, key = "#email", sync = true)
     public UserContextDTO getUserContext(String email) {
         logger.info("Retrieving user context for email: {}", email);
         try {
+            if (userStateService.getUserState(email) == null) {
+                logger.warn("User not found with email: {}", email);
+                throw new ResourceNotFoundException("User", "email", email);
+            }
             User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> {
                     logger.warn("User not found with email: {}", email);
@@ -95,20 +121,27 @@ public class AuthService {
         }
     }
 
-    @CacheEvict(value = "userContext", key = "#email")
-    @Transactional
+    /**
+     * Hashes the new password before the transaction starts, like {@link #register}.
+     */
     public void updatePassword(String email, String newPassword) {
         logger.info("Attempting to update password for user: {}", email);
         try {
-            User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    logger.warn("User not found with email: {}", email);
-                    return new ResourceNotFoundException("User", "email", email);
-                });
-            user.setPassword(passwordEncoder.encode(newPassword));
-            userRepository.save(user);
+            String encodedPassword = passwordEncoder.encode(newPassword);
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> {
+                        logger.warn("User not found with email: {}", email);
+                        return new ResourceNotFoundException("User", "email", email);
+                    });
+                user.setPassword(encodedPassword);
+                userRepository.save(user);
+                // Evicted through the outbox once the new password is committed, so a token check cannot cache the old state.
+                outboxWriter.evict(CacheNames.USER_CONTEXT, email);
+                outboxWriter.evict(CacheNames.USER_STATE, email);
+            });
             logger.info("Password updated successfully for user: {}", email);
-        } catch (ResourceNotFoundException e) {
+        } catch (ResourceNotFoundException | ServiceUnavailableException e) {
             throw e;
         } catch (Exception e) {
             logger.error("Error updating password for user {}: {}", email, e.getMessage());
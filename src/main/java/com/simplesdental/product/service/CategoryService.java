@@ -1,20 +1,29 @@
 package com.simplesdental.product.service;
 
+import com.simplesdental.product.cache.ProductCacheEvictor;
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.events.CatalogEventPublisher;
 import com.simplesdental.product.exception.BusinessException;
 import com.simplesdental.product.exception.ResourceNotFoundException;
 import com.simplesdental.product.logging.LoggerWrapper;
 import com.simplesdental.product.model.Category;
 import com.simplesdental.product.repository.CategoryRepository;
+import com.simplesdental.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final CatalogEventPublisher catalogEventPublisher;
     private final LoggerWrapper logger = new LoggerWrapper(CategoryService.class);
 
     public Page<Category> findAll(Pageable pageable) {
@@ -30,6 +39,30 @@ public class CategoryService {
         }
     }
 
+    public Slice<Category> findAllSlice(Pageable pageable) {
+        logger.info("Retrieving categories slice - page: {}, size: {}, sort: {}",
+            pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        try {
+            Slice<Category> categories = categoryRepository.findAllBy(pageable);
+            logger.info("Successfully retrieved {} categories, has next: {}",
+                categories.getNumberOfElements(), categories.hasNext());
+            return categories;
+        } catch (Exception e) {
+            logger.error("Error retrieving categories slice: {}", e.getMessage());
+            throw new BusinessException("Error retrieving categories", e);
+        }
+    }
+
+    public Long estimateCount() {
+        try {
+            Long estimate = categoryRepository.estimateCount();
+            return estimate == null || estimate < 0 ? null : estimate;
+        } catch (Exception e) {
+            logger.warn("Could not estimate category count: {}", e.getMessage());
+            return null;
+        }
+    }
+
     public Category findById(Long id) {
         logger.info("Retrieving category with id: {}", id);
         try {
@@ -46,10 +79,16 @@ public class CategoryService {
         }
     }
 
+    @Transactional
     public Category save(Category category) {
         logger.info("Saving new category: {}", category.getName());
         try {
+            var type = category.getId() == null ? CatalogEvent.Type.CREATED : CatalogEvent.Type.UPDATED;
             Category savedCategory = categoryRepository.save(category);
+            if (type == CatalogEvent.Type.UPDATED) {
+                evictProductsOf(savedCategory.getId());
+            }
+            catalogEventPublisher.publish(CatalogEvent.Entity.CATEGORY, type, savedCategory.getId());
             logger.info("Category saved successfully with id: {}", savedCategory.getId());
             return savedCategory;
         } catch (Exception e) {
@@ -58,6 +97,7 @@ public class CategoryService {
         }
     }
 
+    @Transactional
     public void deleteById(Long id) {
         logger.info("Deleting category with id: {}", id);
         try {
@@ -65,7 +105,9 @@ public class CategoryService {
                 logger.warn("Category not found with id: {}", id);
                 throw new ResourceNotFoundException("Category", "id", id);
             }
+            evictProductsOf(id);
             categoryRepository.deleteById(id);
+            catalogEventPublisher.publish(CatalogEvent.Entity.CATEGORY, CatalogEvent.Type.DELETED, id);
             logger.info("Category deleted successfully with id: {}", id);
         } catch (ResourceNotFoundException e) {
             throw e;
@@ -74,4 +116,9 @@ public class CategoryService {
             throw new BusinessException("Error deleting category", e);
         }
     }
+
+    // Cached products embed their category (name, version and so the product ETag), so they go stale with it.
+    private void evictProductsOf(Long categoryId) {
+        productCacheEvictor.evictAll(productRepository.findCacheKeysByCategoryId(categoryId));
+    }
 }
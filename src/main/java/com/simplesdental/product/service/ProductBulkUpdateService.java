@@ -0,0 +1,135 @@
+package com.simplesdental.product.service;
+
+import com.simplesdental.product.cache.ProductCacheEvictor;
+import com.simplesdental.product.cache.ProductCacheKey;
+import com.simplesdental.product.controller.dto.product.v2.AdjustCategoryPriceDTO;
+import com.simplesdental.product.controller.dto.product.v2.BulkUpdateProductsResponse;
+import com.simplesdental.product.controller.dto.product.v2.PatchProductV2DTO;
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.events.CatalogEventPublisher;
+import com.simplesdental.product.exception.ResourceNotFoundException;
+import com.simplesdental.product.exception.ValidationException;
+import com.simplesdental.product.logging.LoggerWrapper;
+import com.simplesdental.product.repository.CategoryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Applies price and status changes to many products with set-based UPDATE statements, one per request,
+ * instead of loading and saving each entity. The statements return the ids and codes they touched so that only
+ * those entries are evicted from the product caches, after the transaction commits. Each touched row also gets
+ * its version bumped, as a JPA update would, so ETags and optimistic locks see the change.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductBulkUpdateService {
+
+    private static final String PATCH_PRODUCTS =
+        "UPDATE products p SET price = COALESCE(u.price, p.price), status = COALESCE(u.status, p.status), "
+            + "version = p.version + 1 "
+            + "FROM unnest(CAST(? AS BIGINT[]), CAST(? AS NUMERIC[]), CAST(? AS BOOLEAN[])) AS u(id, price, status) "
+            + "WHERE p.id = u.id RETURNING p.id, p.code";
+
+    private static final String ADJUST_CATEGORY_PRICES =
+        "UPDATE products SET price = GREATEST(ROUND(price * (100 + ?) / 100, 2), 0.01), version = version + 1 "
+            + "WHERE category_id = ? RETURNING id, code";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final Validator validator;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final CatalogEventPublisher catalogEventPublisher;
+    private final LoggerWrapper logger = new LoggerWrapper(ProductBulkUpdateService.class);
+
+    @Transactional
+    public BulkUpdateProductsResponse patch(List<PatchProductV2DTO> items) {
+        logger.info("Patching {} products", items.size());
+        validate(items);
+
+        var ids = items.stream().map(PatchProductV2DTO::id).toArray(Long[]::new);
+        var prices = items.stream().map(PatchProductV2DTO::price).toArray(BigDecimal[]::new);
+        var statuses = items.stream().map(PatchProductV2DTO::status).toArray(Boolean[]::new);
+
+        List<ProductCacheKey> updated = jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(PATCH_PRODUCTS);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("numeric", prices));
+            statement.setArray(3, connection.createArrayOf("boolean", statuses));
+            return statement;
+        }, ProductBulkUpdateService::toCacheKey);
+
+        productCacheEvictor.evictAll(updated);
+        publishUpdated(updated);
+
+        var updatedIds = updated.stream().map(ProductCacheKey::id).collect(Collectors.toSet());
+        var notFound = items.stream().map(PatchProductV2DTO::id).filter(id -> !updatedIds.contains(id)).toList();
+        logger.info("Products patched - updated: {}, not found: {}", updated.size(), notFound.size());
+        return new BulkUpdateProductsResponse(updated.size(), notFound);
+    }
+
+    @Transactional
+    public BulkUpdateProductsResponse adjustCategoryPrices(Long categoryId, AdjustCategoryPriceDTO input) {
+        logger.info("Adjusting prices of category {} by {}%", categoryId, input.percentage());
+        if (!categoryRepository.existsById(categoryId)) {
+            logger.warn("category with id {} not found.", categoryId);
+            throw new ResourceNotFoundException("A categoria informada não existe.");
+        }
+
+        List<ProductCacheKey> updated = jdbcTemplate.query(ADJUST_CATEGORY_PRICES,
+            ProductBulkUpdateService::toCacheKey, input.percentage(), categoryId);
+
+        productCacheEvictor.evictAll(updated);
+        publishUpdated(updated);
+        logger.info("Prices adjusted for {} products of category {}", updated.size(), categoryId);
+        return new BulkUpdateProductsResponse(updated.size(), List.of());
+    }
+
+    private void validate(List<PatchProductV2DTO> items) {
+        var errors = new ArrayList<String>();
+        var seen = new HashSet<Long>();
+
+        for (int index = 0; index < items.size(); index++) {
+            var item = items.get(index);
+            if (item == null) {
+                errors.add("Item " + index + ": O produto não pode ser nulo.");
+                continue;
+            }
+
+            var prefix = "Item " + index + ": ";
+            validator.validate(item).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .forEach(message -> errors.add(prefix + message));
+            if (item.price() == null && item.status() == null) {
+                errors.add(prefix + "Informe o preço ou o status a alterar.");
+            }
+            if (item.id() != null && !seen.add(item.id())) {
+                errors.add(prefix + "O produto " + item.id() + " aparece mais de uma vez.");
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new ValidationException(String.join(" ", errors));
+        }
+    }
+
+    private void publishUpdated(List<ProductCacheKey> updated) {
+        catalogEventPublisher.publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.UPDATED,
+            updated.stream().map(ProductCacheKey::id).toList());
+    }
+
+    private static ProductCacheKey toCacheKey(ResultSet rs, int rowNum) throws SQLException {
+        return new ProductCacheKey(rs.getLong("id"), rs.getObject("code", Integer.class));
+    }
+}
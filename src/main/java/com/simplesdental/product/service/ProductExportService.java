@@ -0,0 +1,90 @@
+package com.simplesdental.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.product.exporting.ExportedProduct;
+import com.simplesdental.product.exporting.ProductExportFormat;
+import com.simplesdental.product.exporting.ProductRowWriter;
+import com.simplesdental.product.logging.LoggerWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Streams the whole catalog, with category names, from a single query.
+ * The query runs on a forward-only cursor that fetches {@code app.export.fetch-size} rows at a time, and each row
+ * is written to the output as soon as it is read, so memory use does not grow with the size of the table.
+ * PostgreSQL only uses a cursor when autocommit is off, hence the read-only transaction.
+ */
+@Service
+public class ProductExportService {
+
+    private static final String SELECT_PRODUCTS =
+        "SELECT p.id, p.name, p.description, p.price, p.status, p.code, p.category_id, c.name AS category_name "
+            + "FROM products p JOIN categories c ON c.id = p.category_id ORDER BY p.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final LoggerWrapper logger = new LoggerWrapper(ProductExportService.class);
+
+    public ProductExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportProducts(OutputStream output, ProductExportFormat format) throws IOException {
+        logger.info("Exporting products as {}", format);
+        var writer = ProductRowWriter.of(format, output, objectMapper);
+        var exported = new long[1];
+
+        try {
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(SELECT_PRODUCTS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                write(writer, toExportedProduct(rs));
+                exported[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            // The client went away; stop reading instead of draining the cursor.
+            logger.warn("Product export aborted after {} rows: {}", exported[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.finish();
+        logger.info("Exported {} products", exported[0]);
+        return exported[0];
+    }
+
+    private static void write(ProductRowWriter writer, ExportedProduct product) {
+        try {
+            writer.write(product);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ExportedProduct toExportedProduct(ResultSet rs) throws SQLException {
+        return new ExportedProduct(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("description"),
+            rs.getBigDecimal("price"),
+            rs.getObject("status", Boolean.class),
+            rs.getObject("code", Integer.class),
+            rs.getLong("category_id"),
+            rs.getString("category_name"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.simplesdental.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.product.cache.ProductCacheEvictor;
+import com.simplesdental.product.cache.ProductIdFilter;
+import com.simplesdental.product.controller.dto.product.v2.CreateProductV2DTO;
+import com.simplesdental.product.controller.dto.product.v2.ProductImportResponse;
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.events.CatalogEventPublisher;
+import com.simplesdental.product.exception.BusinessException;
+import com.simplesdental.product.importing.ImportReport;
+import com.simplesdental.product.importing.ImportRow;
+import com.simplesdental.product.importing.ProductImportFormat;
+import com.simplesdental.product.importing.ProductRowReader;
+import com.simplesdental.product.logging.LoggerWrapper;
+import com.simplesdental.product.suggest.ProductSuggestionIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Loads a full catalog file through PostgreSQL COPY.
+ * Rows are parsed and validated one at a time and streamed into a temporary staging table, then merged into
+ * {@code products} with a single INSERT ... SELECT. The file is never buffered in memory.
+ * The import only inserts: a row whose code already belongs to a product, or to an earlier line of the file,
+ * is rejected.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_TABLE =
+        "CREATE TEMPORARY TABLE products_import ("
+            + "line BIGINT NOT NULL, name VARCHAR(100), description VARCHAR(255), price DECIMAL(19, 2), "
+            + "status BOOLEAN, code INTEGER, category_id BIGINT) ON COMMIT DROP";
+
+    private static final String COPY_INTO_STAGING =
+        "COPY products_import (line, name, description, price, status, code, category_id) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String REMOVE_UNKNOWN_CATEGORIES =
+        "WITH removed AS (DELETE FROM products_import s "
+            + "WHERE NOT EXISTS (SELECT 1 FROM categories c WHERE c.id = s.category_id) RETURNING s.line) "
+            + "SELECT line FROM removed ORDER BY line";
+
+    private static final String REMOVE_TAKEN_CODES =
+        "WITH removed AS (DELETE FROM products_import s WHERE s.code IS NOT NULL "
+            + "AND (EXISTS (SELECT 1 FROM products p WHERE p.code = s.code) "
+            + "OR EXISTS (SELECT 1 FROM products_import t WHERE t.code = s.code AND t.line < s.line)) "
+            + "RETURNING s.line, s.code) "
+            + "SELECT line, code FROM removed ORDER BY line";
+
+    // The allocation size of products_id_seq (V6) and of Product's sequence generator.
+    private static final int ID_BLOCK_SIZE = 50;
+
+    // Ids are taken in blocks like Hibernate's pooled optimizer takes them: each nextval reserves the block of
+    // ID_BLOCK_SIZE ids that ends at the value returned. A nextval per row would burn a whole block per product.
+    private static final String MERGE_INTO_PRODUCTS =
+        "INSERT INTO products (id, name, description, price, status, code, category_id) "
+            + "SELECT b.top - " + (ID_BLOCK_SIZE - 1) + " + s.rn % " + ID_BLOCK_SIZE + ", "
+            + "s.name, s.description, s.price, s.status, s.code, s.category_id "
+            + "FROM (SELECT i.*, row_number() OVER (ORDER BY i.line) - 1 AS rn FROM products_import i) s "
+            + "JOIN (SELECT row_number() OVER () - 1 AS block, t.top FROM ("
+            + "SELECT nextval('products_id_seq') AS top FROM generate_series(1, "
+            + "(SELECT (count(*) + " + (ID_BLOCK_SIZE - 1) + ") / " + ID_BLOCK_SIZE + " FROM products_import))"
+            + ") t) b ON b.block = s.rn / " + ID_BLOCK_SIZE + " "
+            + "ORDER BY s.line";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final ProductIdFilter productIdFilter;
+    private final CatalogEventPublisher catalogEventPublisher;
+    private final LoggerWrapper logger = new LoggerWrapper(ProductImportService.class);
+
+    @Transactional
+    public ProductImportResponse importProducts(InputStream input, ProductImportFormat format) {
+        logger.info("Importing products from {} input", format);
+        var report = new ImportReport(MAX_REPORTED_ERRORS);
+
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+        try (var rows = ProductRowReader.of(format, input, objectMapper)) {
+            long staged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> stage(connection, rows, report));
+            logger.info("Staged {} product rows", staged);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error reading product import: {}", e.getMessage());
+            throw new BusinessException("Não foi possível ler o arquivo de importação.", e);
+        }
+
+        jdbcTemplate.query(REMOVE_UNKNOWN_CATEGORIES, (RowCallbackHandler)
+            rs -> report.reject(rs.getLong("line"), List.of("A categoria informada não existe.")));
+        jdbcTemplate.query(REMOVE_TAKEN_CODES, (RowCallbackHandler) rs -> report.reject(rs.getLong("line"),
+            List.of("Já existe um produto com o código " + rs.getInt("code") + ".")));
+        long imported = jdbcTemplate.update(MERGE_INTO_PRODUCTS);
+        if (imported > 0) {
+            // New ids and codes may have been cached as not found.
+            productCacheEvictor.clear();
+            // New ids are not listed; the filter answers again once the resync event has it rebuilt.
+            productIdFilter.invalidate();
+            productSuggestionIndex.rebuildAfterCommit();
+            catalogEventPublisher.publishResync(CatalogEvent.Entity.PRODUCT);
+        }
+
+        var response = report.toResponse(imported);
+        logger.info("Product import finished - received: {}, imported: {}, rejected: {}",
+            response.received(), response.imported(), response.rejected());
+        return response;
+    }
+
+    private long stage(Connection connection, ProductRowReader rows, ImportReport report) throws SQLException {
+        var copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_INTO_STAGING, COPY_BUFFER_SIZE);
+        var writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8));
+        try {
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                report.received();
+                var errors = row.product() == null ? row.errors() : validate(row.product());
+                if (errors.isEmpty()) {
+                    writeCsvRecord(writer, row.line(), row.product());
+                } else {
+                    report.reject(row.line(), errors);
+                }
+            }
+            writer.flush();
+            return copy.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // Leaves the connection usable when reading or validating the input failed mid-copy.
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private List<String> validate(CreateProductV2DTO product) {
+        return validator.validate(product).stream()
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .toList();
+    }
+
+    private static void writeCsvRecord(Writer writer, long line, CreateProductV2DTO product) throws IOException {
+        writer.write(Long.toString(line));
+        writeCsvField(writer, product.name());
+        writeCsvField(writer, product.description());
+        writeCsvField(writer, product.price());
+        writeCsvField(writer, product.status());
+        writeCsvField(writer, product.code());
+        writeCsvField(writer, product.categoryId());
+        writer.write('\n');
+    }
+
+    // COPY csv reads an unquoted empty field as NULL, so only present values are written (always quoted).
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value != null) {
+            var text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
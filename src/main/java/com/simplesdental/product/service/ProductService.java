@@ -1,22 +1,63 @@
 package com.simplesdental.product.service;
 
+import com.simplesdental.product.cache.ProductBatchCache;
+import com.simplesdental.product.cache.ProductCacheEvictor;
+import com.simplesdental.product.cache.ProductCacheKey;
+import com.simplesdental.product.cache.ProductIdFilter;
+import com.simplesdental.product.config.CacheNames;
 import com.simplesdental.product.controller.dto.product.v1.CreateProductDTO;
 import com.simplesdental.product.controller.dto.product.v1.UpdateProductDTO;
+import com.simplesdental.product.controller.dto.product.v2.BatchCreateProductsResponse;
+import com.simplesdental.product.controller.dto.product.v2.BatchProductResult;
 import com.simplesdental.product.controller.dto.product.v2.CreateProductV2DTO;
+import com.simplesdental.product.controller.dto.product.v2.ProductChangesResponse;
+import com.simplesdental.product.controller.dto.product.v2.ProductLookupResponse;
 import com.simplesdental.product.controller.dto.product.v2.UpdateProductV2DTO;
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.events.CatalogEventPublisher;
 import com.simplesdental.product.exception.BusinessException;
+import com.simplesdental.product.exception.PreconditionFailedException;
 import com.simplesdental.product.exception.ResourceNotFoundException;
 import com.simplesdental.product.logging.LoggerWrapper;
+import com.simplesdental.product.model.Category;
+import com.simplesdental.product.model.ETags;
 import com.simplesdental.product.model.Product;
+import com.simplesdental.product.pagination.ChangeCursor;
+import com.simplesdental.product.pagination.CursorPage;
+import com.simplesdental.product.pagination.ProductCursor;
+import com.simplesdental.product.pagination.ProductSortKey;
+import com.simplesdental.product.pagination.SearchCursor;
 import com.simplesdental.product.repository.CategoryRepository;
+import com.simplesdental.product.repository.ProductChangeRepository;
+import com.simplesdental.product.repository.ProductFilter;
 import com.simplesdental.product.repository.ProductRepository;
+import com.simplesdental.product.repository.ProductSearchRepository;
+import com.simplesdental.product.repository.projection.ProductSearchHit;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import com.simplesdental.product.suggest.ProductSuggestionIndex;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
@@ -25,12 +66,27 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductSearchRepository productSearchRepository;
+    private final ProductChangeRepository productChangeRepository;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final ProductCacheEvictor productCacheEvictor;
+    private final ProductIdFilter productIdFilter;
+    private final ProductBatchCache productBatchCache;
+    private final CatalogEventPublisher catalogEventPublisher;
+    private final Validator validator;
     private final LoggerWrapper logger = new LoggerWrapper(ProductService.class);
 
-    public Page<Product> findAll(Pageable pageable) {
-        logger.info("Retrieving all products");
+    public Page<ProductSummary> findAll(Pageable pageable) {
+        return findAll(ProductFilter.none(), pageable);
+    }
+
+    public Page<ProductSummary> findAll(ProductFilter filter, Pageable pageable) {
+        logger.info("Retrieving all products - filter: {}", filter);
+        validate(filter);
         try {
-            Page<Product> products = productRepository.findAll(pageable);
+            Page<ProductSummary> products = filter.isEmpty()
+                ? productRepository.findAllSummaries(pageable)
+                : productRepository.findSummaries(filter, pageable);
             logger.info("Successfully retrieved {} products", products.getTotalElements());
             return products;
         } catch (Exception e) {
@@ -39,8 +95,145 @@ public class ProductService {
         }
     }
 
+    public Slice<ProductSummary> findAllSlice(Pageable pageable) {
+        return findAllSlice(ProductFilter.none(), pageable);
+    }
+
+    public Slice<ProductSummary> findAllSlice(ProductFilter filter, Pageable pageable) {
+        logger.info("Retrieving products slice - page: {}, size: {}, filter: {}",
+            pageable.getPageNumber(), pageable.getPageSize(), filter);
+        validate(filter);
+        try {
+            Slice<ProductSummary> products = filter.isEmpty()
+                ? productRepository.findSummarySlice(pageable)
+                : productRepository.findSummarySlice(filter, pageable);
+            logger.info("Successfully retrieved {} products, has next: {}", products.getNumberOfElements(), products.hasNext());
+            return products;
+        } catch (Exception e) {
+            logger.error("Error retrieving products slice: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    private void validate(ProductFilter filter) {
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice().compareTo(filter.maxPrice()) > 0) {
+            throw new BusinessException("O preço mínimo não pode ser maior que o preço máximo.");
+        }
+        if (filter.namePrefix() != null && filter.namePrefix().length() > 100) {
+            throw new BusinessException("O prefixo do nome deve ter no máximo 100 caracteres.");
+        }
+    }
+
+    public Long estimateCount() {
+        try {
+            Long estimate = productRepository.estimateCount();
+            return estimate == null || estimate < 0 ? null : estimate;
+        } catch (Exception e) {
+            logger.warn("Could not estimate product count: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public CursorPage<ProductSummary> findAllAfter(ProductSortKey sortKey, String after, int size) {
+        logger.info("Retrieving products by keyset - sort: {}, size: {}", sortKey.parameter(), size);
+        var cursor = after == null ? null : ProductCursor.decode(after);
+
+        if (cursor != null && cursor.sortKey() != sortKey) {
+            logger.warn("Cursor sorted by {} used with sort {}", cursor.sortKey().parameter(), sortKey.parameter());
+            throw new BusinessException("O cursor informado não corresponde à ordenação solicitada.");
+        }
+
+        try {
+            // Fetch one extra row to know whether another page exists without counting.
+            var limit = PageRequest.of(0, size + 1);
+            List<ProductSummary> products = switch (sortKey) {
+                case ID -> cursor == null
+                    ? productRepository.findFirstOrderById(limit)
+                    : productRepository.findAfterOrderById(cursor.id(), limit);
+                case NAME -> cursor == null
+                    ? productRepository.findFirstOrderByName(limit)
+                    : productRepository.findAfterOrderByName(cursor.key(), cursor.id(), limit);
+                case PRICE -> cursor == null
+                    ? productRepository.findFirstOrderByPrice(limit)
+                    : productRepository.findAfterOrderByPrice(new BigDecimal(cursor.key()), cursor.id(), limit);
+            };
+
+            String next = null;
+            if (products.size() > size) {
+                products = products.subList(0, size);
+                var last = products.get(size - 1);
+                next = new ProductCursor(sortKey, sortKey.keyOf(last), last.id()).encode();
+            }
+
+            logger.info("Successfully retrieved {} products by keyset", products.size());
+            return new CursorPage<>(products, products.size(), next);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Cursor de paginação inválido.", e);
+        } catch (Exception e) {
+            logger.error("Error retrieving products by keyset: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    public CursorPage<ProductSummary> search(String query, String after, int size) {
+        logger.info("Searching products - query: {}, size: {}", query, size);
+        var cursor = after == null ? null : SearchCursor.decode(after);
+
+        try {
+            // Fetch one extra row to know whether another page exists without counting.
+            List<ProductSearchHit> hits = cursor == null
+                ? productSearchRepository.searchFirst(query, size + 1)
+                : productSearchRepository.searchAfter(query, cursor.score(), cursor.id(), size + 1);
+
+            String next = null;
+            if (hits.size() > size) {
+                hits = hits.subList(0, size);
+                var last = hits.get(size - 1);
+                next = new SearchCursor(last.score(), last.product().id()).encode();
+            }
+
+            var products = hits.stream().map(ProductSearchHit::product).toList();
+            logger.info("Search found {} products", products.size());
+            return new CursorPage<>(products, products.size(), next);
+        } catch (Exception e) {
+            logger.error("Error searching products: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    public ProductChangesResponse findChanges(String since, int size) {
+        logger.info("Retrieving product changes - since: {}, size: {}", since, size);
+        var cursor = since == null ? ChangeCursor.START : ChangeCursor.decode(since);
+
+        try {
+            // Fetch one extra change to know whether more are waiting.
+            var changes = productChangeRepository.findAfter(cursor, size + 1);
+            var hasMore = changes.size() > size;
+            if (hasMore) {
+                changes = changes.subList(0, size);
+            }
+
+            var next = changes.isEmpty() ? cursor : changes.get(changes.size() - 1).position();
+            logger.info("Found {} product changes", changes.size());
+            return new ProductChangesResponse(changes, next.encode(), hasMore);
+        } catch (Exception e) {
+            logger.error("Error retrieving product changes: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Ids the product id filter rules out skip the cache and the database. Ids that are not found in the database
+     * are cached as missing for {@code app.cache.ttl.not-found}.
+     */
+    @Cacheable(value = CacheNames.PRODUCTS, key = "#id", sync = true, condition = "@productIdFilter.mightContain(#id)")
     public Optional<Product> findById(Long id) {
         logger.info("Retrieving product with id: {}", id);
+        if (!productIdFilter.mightContain(id)) {
+            logger.info("Product with id {} ruled out by the id filter", id);
+            return Optional.empty();
+        }
+
         try {
             return productRepository.findById(id);
         } catch (Exception e) {
@@ -49,6 +242,54 @@ public class ProductService {
         }
     }
 
+    /**
+     * Resolves many ids at once. Cached products come from the L1 or a single Redis MGET, the rest from one
+     * IN query whose results then fill the cache; ids the product id filter rules out are not queried.
+     * Results keep the request order; repeated ids resolve once.
+     */
+    public ProductLookupResponse findAllById(List<Long> ids) {
+        logger.info("Looking up {} products by id", ids.size());
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new BusinessException("Os ids dos produtos não podem ser nulos.");
+        }
+
+        try {
+            var distinctIds = new LinkedHashSet<>(ids);
+            var cached = productBatchCache.getAll(distinctIds);
+            var found = new HashMap<Long, Product>();
+            cached.forEach((id, product) -> product.ifPresent(value -> found.put(id, value)));
+            // Ids cached as not existing are answered like findById answers them, without the database.
+            var uncached = distinctIds.stream()
+                .filter(id -> !cached.containsKey(id) && productIdFilter.mightContain(id))
+                .toList();
+            logger.info("Products found in cache: {}, loading {} from the database", cached.size(), uncached.size());
+
+            if (!uncached.isEmpty()) {
+                var loaded = productRepository.findByIdIn(uncached);
+                loaded.forEach(product -> found.put(product.getId(), product));
+                productBatchCache.putAll(loaded, uncached.stream().filter(id -> !found.containsKey(id)).toList());
+            }
+
+            var products = ids.stream().map(found::get).toList();
+            var notFound = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+            return new ProductLookupResponse(products, notFound);
+        } catch (Exception e) {
+            logger.error("Error looking up products by id: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    @Cacheable(value = CacheNames.PRODUCTS_BY_CODE, key = "#code", sync = true)
+    public Optional<Product> findByCode(Integer code) {
+        logger.info("Retrieving product with code: {}", code);
+        try {
+            return productRepository.findByCode(code);
+        } catch (Exception e) {
+            logger.error("Error retrieving product with code {}: {}", code, e.getMessage());
+            throw e;
+        }
+    }
+
     @SneakyThrows
     @Transactional
     public Product save(CreateProductV2DTO input) {
@@ -71,6 +312,11 @@ public class ProductService {
 
         try {
             Product savedProduct = productRepository.save(product);
+            productIdFilter.add(savedProduct.getId());
+            // Drops not-found entries cached for the new id or code.
+            productCacheEvictor.evict(savedProduct.getId(), savedProduct.getCode());
+            productSuggestionIndex.put(savedProduct.getId(), savedProduct.getName());
+            catalogEventPublisher.publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.CREATED, savedProduct.getId());
             logger.info("Product saved successfully with id: {}", savedProduct.getId());
             return savedProduct;
         } catch (Exception e) {
@@ -79,29 +325,137 @@ public class ProductService {
         }
     }
 
-    public void deleteById(Long id) {
+    /**
+     * Creates every valid item of the batch in one transaction and reports the outcome of each item.
+     * Categories are resolved with a single query and the inserts are sent as JDBC batches.
+     */
+    @Transactional
+    public BatchCreateProductsResponse saveAll(List<CreateProductV2DTO> inputs) {
+        logger.info("Saving batch of {} products", inputs.size());
+        Set<Long> categoryIds = inputs.stream()
+            .filter(Objects::nonNull)
+            .map(CreateProductV2DTO::categoryId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+            .collect(Collectors.toMap(Category::getId, Function.identity()));
+        Set<Integer> codes = inputs.stream()
+            .filter(Objects::nonNull)
+            .map(CreateProductV2DTO::code)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Integer> takenCodes = codes.isEmpty()
+            ? new HashSet<>()
+            : new HashSet<>(productRepository.findExistingCodes(codes));
+
+        var results = new BatchProductResult[inputs.size()];
+        var products = new ArrayList<Product>();
+        var productIndexes = new ArrayList<Integer>();
+
+        for (int index = 0; index < inputs.size(); index++) {
+            var input = inputs.get(index);
+            var errors = validate(input, categories);
+            if (errors.isEmpty() && input.code() != null && !takenCodes.add(input.code())) {
+                errors = List.of("Já existe um produto com o código " + input.code() + ".");
+            }
+            if (!errors.isEmpty()) {
+                results[index] = BatchProductResult.failed(index, errors);
+                continue;
+            }
+
+            products.add(Product.builder()
+                .name(input.name())
+                .description(input.description())
+                .price(input.price())
+                .status(input.status())
+                .code(input.code())
+                .category(categories.get(input.categoryId()))
+                .build());
+            productIndexes.add(index);
+        }
+
+        try {
+            List<Product> savedProducts = productRepository.saveAll(products);
+            productIdFilter.addAll(savedProducts.stream().map(Product::getId).toList());
+            productCacheEvictor.evictAll(savedProducts.stream()
+                .map(savedProduct -> new ProductCacheKey(savedProduct.getId(), savedProduct.getCode()))
+                .toList());
+            catalogEventPublisher.publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.CREATED,
+                savedProducts.stream().map(Product::getId).toList());
+            for (int i = 0; i < savedProducts.size(); i++) {
+                int index = productIndexes.get(i);
+                var savedProduct = savedProducts.get(i);
+                results[index] = BatchProductResult.created(index, savedProduct.getId());
+                productSuggestionIndex.put(savedProduct.getId(), savedProduct.getName());
+            }
+        } catch (Exception e) {
+            logger.error("Error saving batch of products: {}", e.getMessage());
+            throw e;
+        }
+
+        var response = BatchCreateProductsResponse.of(List.of(results));
+        logger.info("Batch saved - created: {}, failed: {}", response.created(), response.failed());
+        return response;
+    }
+
+    private List<String> validate(CreateProductV2DTO input, Map<Long, Category> categories) {
+        if (input == null) {
+            return List.of("O produto não pode ser nulo.");
+        }
+
+        var errors = validator.validate(input).stream()
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .toList();
+        if (errors.isEmpty() && !categories.containsKey(input.categoryId())) {
+            return List.of("A categoria informada não existe.");
+        }
+        return errors;
+    }
+
+    @Transactional
+    public boolean deleteById(Long id) {
         logger.info("Deleting product with id: {}", id);
         try {
+            // Loaded into the persistence context, so deleteById does not read it again.
+            var product = productRepository.findById(id);
+            product.ifPresent(existing -> {
+                productCacheEvictor.evict(id, existing.getCode());
+                catalogEventPublisher.publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.DELETED, id);
+            });
             productRepository.deleteById(id);
+            productSuggestionIndex.remove(id);
             logger.info("Product deleted successfully with id: {}", id);
+            return product.isPresent();
         } catch (Exception e) {
             logger.error("Error deleting product with id {}: {}", id, e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * Updates a product. When {@code ifMatch} is given it must match the product's current ETag, otherwise the
+     * update is rejected; a concurrent update that commits first is caught by the version check on flush.
+     */
     @SneakyThrows
     @Transactional
-    public UpdateProductV2DTO update(Long id, @Valid UpdateProductV2DTO input) {
+    public UpdateProductV2DTO update(Long id, @Valid UpdateProductV2DTO input, String ifMatch) {
         logger.info("Updating product with id: {}", id);
-        var product = findById(id);
+        // Writes read the row itself, never the cache or the product id filter.
+        var product = productRepository.findById(id);
 
         if (product.isEmpty()) {
             logger.warn("product with id: {} not found", id);
             throw new ResourceNotFoundException("Produto não encontrado.");
         }
 
+        if (ifMatch != null && !ETags.matches(ifMatch, ETags.of(product.get()))) {
+            logger.warn("product with id: {} changed since {}", id, ifMatch);
+            throw new PreconditionFailedException("O produto foi alterado desde a última leitura.");
+        }
+
         var category = product.get().getCategory();
+        var previousCode = product.get().getCode();
 
         if (input.categoryId() != null) {
             category = categoryRepository.findById(input.categoryId()).orElse(null);
@@ -115,6 +469,12 @@ public class ProductService {
         var updatedProduct = product.get().update(input, category);
 
         var savedProduct = productRepository.save(updatedProduct);
+        productSuggestionIndex.put(savedProduct.getId(), savedProduct.getName());
+        productCacheEvictor.evict(savedProduct.getId(), previousCode);
+        if (!Objects.equals(previousCode, savedProduct.getCode())) {
+            productCacheEvictor.evictCode(savedProduct.getCode());
+        }
+        catalogEventPublisher.publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.UPDATED, savedProduct.getId());
 
         return UpdateProductV2DTO.builder()
             .name(savedProduct.getName())
@@ -140,7 +500,7 @@ public class ProductService {
                 .status(input.status())
                 .code(code)
                 .categoryId(input.categoryId())
-                .build());
+                .build(), null);
 
         return UpdateProductDTO.builder()
             .name(updatedProduct.name())
@@ -166,8 +526,11 @@ public class ProductService {
             input.categoryId()));
     }
 
+    /**
+     * Converts a v1 code ({@code PROD-001}) to the number stored in {@code products.code}.
+     */
     @SneakyThrows
-    private Integer getCodeAsInteger(String code) {
+    public Integer getCodeAsInteger(String code) {
         if (code == null) {
             return null;
         }
@@ -177,6 +540,11 @@ public class ProductService {
             throw new BusinessException("Produto não possui o código no formato esperado. ex: PROD-001");
         }
 
-        return Integer.parseInt(code.replaceAll("\\D", ""));
+        try {
+            return Integer.parseInt(code.replaceAll("\\D", ""));
+        } catch (NumberFormatException e) {
+            logger.warn("Code out of range: {}", code);
+            throw new BusinessException("Produto não possui o código no formato esperado. ex: PROD-001");
+        }
     }
 }
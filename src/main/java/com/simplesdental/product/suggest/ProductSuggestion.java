@@ -0,0 +1,3 @@
+package com.simplesdental.product.suggest;
+
+public record ProductSuggestion(Long id, String name) {}
@@ -0,0 +1,179 @@
+package com.simplesdental.product.suggest;
+
+import com.simplesdental.product.logging.LoggerWrapper;
+import com.simplesdental.product.repository.ProductRepository;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory index of product names for typeahead, so suggestions never touch the database.
+ * Every word start of a name is a key in a sorted map (lowercase, accents removed), so a prefix lookup is a
+ * range scan: "ergo" finds "Cadeira Ergonômica". Reads are lock-free.
+ * The index is loaded when the application starts and changed by {@code ProductService} after each commit.
+ * It is also rebuilt every {@code app.suggest.refresh-interval}, which picks up changes made on other nodes
+ * and by bulk statements.
+ */
+@Component
+public class ProductSuggestionIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_START = Pattern.compile("(?<=\\s)(?=\\S)");
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private final ProductRepository productRepository;
+    private final LoggerWrapper logger = new LoggerWrapper(ProductSuggestionIndex.class);
+
+    private volatile Entries entries = new Entries();
+    // Changes made while a rebuild is loading, replayed on the new entries; guarded by this.
+    private List<Consumer<Entries>> pendingChanges;
+
+    public ProductSuggestionIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        var prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        var matches = new LinkedHashMap<Long, ProductSuggestion>();
+        for (var suggestion : entries.byKey.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            matches.putIfAbsent(suggestion.id(), suggestion);
+            if (matches.size() == limit) {
+                break;
+            }
+        }
+        return List.copyOf(matches.values());
+    }
+
+    public int size() {
+        return entries.keysById.size();
+    }
+
+    /**
+     * Adds or renames a product once the current transaction commits, or right away outside a transaction.
+     */
+    public void put(Long id, String name) {
+        afterCommit(() -> apply(index -> index.put(id, name)));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> apply(index -> index.remove(id)));
+    }
+
+    public void rebuildAfterCommit() {
+        afterCommit(this::rebuild);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.suggest.refresh-interval:PT5M}",
+        fixedDelayString = "${app.suggest.refresh-interval:PT5M}")
+    public void rebuild() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        var fresh = new Entries();
+        try {
+            productRepository.findAllNames().forEach(product -> fresh.put(product.id(), product.name()));
+        } catch (Exception e) {
+            logger.error("Error loading product suggestion index: {}", e.getMessage());
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            pendingChanges.forEach(change -> change.accept(fresh));
+            pendingChanges = null;
+            entries = fresh;
+        }
+        logger.info("Product suggestion index loaded with {} products", fresh.keysById.size());
+    }
+
+    private synchronized void apply(Consumer<Entries> change) {
+        change.accept(entries);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    static String normalize(String text) {
+        var decomposed = Normalizer.normalize(text.strip(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static final class Entries {
+
+        private final ConcurrentNavigableMap<String, ProductSuggestion> byKey = new ConcurrentSkipListMap<>();
+        private final Map<Long, List<String>> keysById = new ConcurrentHashMap<>();
+
+        void put(Long id, String name) {
+            remove(id);
+            if (name == null) {
+                return;
+            }
+
+            var suggestion = new ProductSuggestion(id, name);
+            var keys = new ArrayList<String>();
+            for (var suffix : wordSuffixes(normalize(name))) {
+                var key = suffix + ID_SEPARATOR + id;
+                keys.add(key);
+                byKey.put(key, suggestion);
+            }
+            keysById.put(id, keys);
+        }
+
+        void remove(Long id) {
+            var keys = keysById.remove(id);
+            if (keys != null) {
+                keys.forEach(byKey::remove);
+            }
+        }
+
+        private static List<String> wordSuffixes(String normalizedName) {
+            var suffixes = new ArrayList<String>();
+            var matcher = WORD_START.matcher(normalizedName);
+            suffixes.add(normalizedName);
+            while (matcher.find()) {
+                suffixes.add(normalizedName.substring(matcher.start()));
+            }
+            return suffixes;
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- Optimistic locking counters, also the source of the ETags served on product and category reads.
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE categories ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,77 @@
+-- Change feed for catalog mirrors (GET /api/v2/products/changes).
+-- Every written row is stamped with the writing transaction (change_xid), a global sequence number (change_seq)
+-- and the time of the write. Triggers stamp JPA writes as well as the bulk UPDATEs and the COPY import.
+-- The feed is ordered by (change_xid, change_seq) and only returns rows of transactions older than every
+-- transaction still running, so a row can never commit behind a position a mirror already passed.
+CREATE SEQUENCE catalog_change_seq;
+
+-- Volatile defaults stamp the existing rows; the triggers take over afterwards.
+ALTER TABLE products
+    ADD COLUMN change_xid xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    ADD COLUMN change_seq BIGINT NOT NULL DEFAULT nextval('catalog_change_seq'),
+    ADD COLUMN updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE products
+    ALTER COLUMN change_xid DROP DEFAULT,
+    ALTER COLUMN change_seq DROP DEFAULT,
+    ALTER COLUMN updated_at DROP DEFAULT;
+
+ALTER TABLE categories
+    ADD COLUMN change_xid xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    ADD COLUMN change_seq BIGINT NOT NULL DEFAULT nextval('catalog_change_seq'),
+    ADD COLUMN updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE categories
+    ALTER COLUMN change_xid DROP DEFAULT,
+    ALTER COLUMN change_seq DROP DEFAULT,
+    ALTER COLUMN updated_at DROP DEFAULT;
+
+-- Deleted products, so mirrors can drop them.
+CREATE TABLE product_tombstones (
+    id         BIGINT      PRIMARY KEY,
+    code       INTEGER,
+    change_xid xid8        NOT NULL,
+    change_seq BIGINT      NOT NULL,
+    deleted_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_products_change ON products (change_xid, change_seq);
+CREATE INDEX idx_product_tombstones_change ON product_tombstones (change_xid, change_seq);
+
+CREATE FUNCTION stamp_catalog_change() RETURNS trigger AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id();
+    NEW.change_seq := nextval('catalog_change_seq');
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_products_stamp_change BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION stamp_catalog_change();
+
+CREATE TRIGGER trg_categories_stamp_change BEFORE INSERT OR UPDATE ON categories
+    FOR EACH ROW EXECUTE FUNCTION stamp_catalog_change();
+
+CREATE FUNCTION record_product_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO product_tombstones (id, code, change_xid, change_seq, deleted_at)
+    VALUES (OLD.id, OLD.code, pg_current_xact_id(), nextval('catalog_change_seq'), now())
+    ON CONFLICT (id) DO UPDATE SET code = EXCLUDED.code, change_xid = EXCLUDED.change_xid,
+        change_seq = EXCLUDED.change_seq, deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_products_record_tombstone AFTER DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION record_product_tombstone();
+
+-- Products embed their category, so a category rename re-stamps its products for the mirrors.
+CREATE FUNCTION restamp_category_products() RETURNS trigger AS $$
+BEGIN
+    UPDATE products SET updated_at = now() WHERE category_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_categories_restamp_products AFTER UPDATE OF name, description ON categories
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name OR OLD.description IS DISTINCT FROM NEW.description)
+    EXECUTE FUNCTION restamp_category_products();
@@ -0,0 +1,10 @@
+-- Cache invalidations and catalog events, written in the transaction of the change that causes them
+-- and relayed to Redis by OutboxRelay once that transaction commits. Relayed rows are deleted.
+CREATE TABLE outbox (
+    id         BIGSERIAL   PRIMARY KEY,
+    kind       VARCHAR(10) NOT NULL CHECK (kind IN ('EVICT', 'CLEAR', 'EVENT')),
+    cache_name VARCHAR(100),
+    cache_key  TEXT,
+    payload    TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
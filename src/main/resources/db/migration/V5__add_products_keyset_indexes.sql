@@ -0,0 +1,3 @@
+-- Support keyset pagination on GET /api/v2/products/scroll: every sort key is paired with id.
+CREATE INDEX idx_products_name_id ON products (name, id);
+CREATE INDEX idx_products_price_id ON products (price, id);
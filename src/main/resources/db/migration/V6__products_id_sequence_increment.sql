@@ -0,0 +1,3 @@
+-- Products ids come from a pooled sequence so Hibernate can batch inserts: each nextval reserves 50 ids.
+-- Plain INSERTs still call nextval through the column default and never collide with a reserved range.
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- Support the filters of GET /api/v2/products.
+-- Category (optionally with status and a price range); also indexes the category foreign key.
+CREATE INDEX idx_products_category_status_price ON products (category_id, status, price);
+-- Active products by price range, the most common listing.
+CREATE INDEX idx_products_active_price_id ON products (price, id) WHERE status = true;
+-- Case-insensitive name prefix: lower(name) LIKE 'abc%'.
+CREATE INDEX idx_products_lower_name_pattern ON products (lower(name) text_pattern_ops);
@@ -0,0 +1,3 @@
+-- Product code identifies a product for integrations (v1 clients use PROD-nnn): unique and indexed.
+-- NULL codes are allowed and may repeat.
+CREATE UNIQUE INDEX uq_products_code ON products (code);
@@ -0,0 +1,55 @@
+package com.simplesdental.product.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.simplesdental.product.config.CacheNames;
+import com.simplesdental.product.outbox.OutboxWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheEvictorTest {
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @InjectMocks
+    private ProductCacheEvictor productCacheEvictor;
+
+    @Test
+    void shouldEvictProductsByIdAndByCode() {
+        productCacheEvictor.evictAll(List.of(new ProductCacheKey(1L, 101), new ProductCacheKey(2L, null)));
+
+        verify(outboxWriter).evictAll(CacheNames.PRODUCTS, List.of(1L, 2L));
+        verify(outboxWriter).evictAll(CacheNames.PRODUCTS_BY_CODE, List.of(101));
+        verifyNoMoreInteractions(outboxWriter);
+    }
+
+    @Test
+    void shouldClearBothCachesWhenManyProductsChanged() {
+        var keys = new ArrayList<ProductCacheKey>();
+        LongStream.rangeClosed(1, ProductCacheEvictor.MAX_INDIVIDUAL_EVICTIONS + 1)
+            .forEach(id -> keys.add(new ProductCacheKey(id, (int) id)));
+
+        productCacheEvictor.evictAll(keys);
+
+        verify(outboxWriter).clear(CacheNames.PRODUCTS);
+        verify(outboxWriter).clear(CacheNames.PRODUCTS_BY_CODE);
+        verify(outboxWriter, never()).evictAll(any(), any());
+    }
+
+    @Test
+    void shouldIgnoreMissingCode() {
+        productCacheEvictor.evict(1L, null);
+
+        verify(outboxWriter).evict(CacheNames.PRODUCTS, 1L);
+        verifyNoMoreInteractions(outboxWriter);
+    }
+}
@@ -0,0 +1,121 @@
+package com.simplesdental.product.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.pagination.ChangeCursor;
+import com.simplesdental.product.repository.ProductChangeRepository;
+import com.simplesdental.product.repository.ProductRepository;
+import com.simplesdental.product.repository.projection.ProductChange;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProductIdFilterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    private ProductIdFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(productChangeRepository.horizon())
+            .thenReturn(new ProductChangeRepository.Horizon(new ChangeCursor(99, Long.MAX_VALUE), true));
+        filter = new ProductIdFilter(productRepository, productChangeRepository, true, 0.01, Duration.ofHours(1));
+    }
+
+    @Test
+    void shouldAllowEveryIdUntilLoaded() {
+        assertTrue(filter.mightContain(404L));
+    }
+
+    @Test
+    void shouldRuleOutIdsThatDoNotExist() {
+        when(productRepository.findAllIds()).thenReturn(LongStream.rangeClosed(1, 1000).boxed().toList());
+
+        filter.rebuild();
+
+        assertTrue(LongStream.rangeClosed(1, 1000).allMatch(filter::mightContain));
+        var falsePositives = LongStream.rangeClosed(1001, 11000).filter(filter::mightContain).count();
+        assertTrue(falsePositives < 300, "Too many false positives: " + falsePositives);
+    }
+
+    @Test
+    void shouldKnowIdsCreatedHereAndOnOtherNodes() {
+        when(productRepository.findAllIds()).thenReturn(List.of(1L));
+        filter.rebuild();
+
+        filter.add(2L);
+        filter.onCatalogEvent(new CatalogEvent("e1", CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.CREATED, List.of(3L)));
+
+        assertTrue(filter.mightContain(2L));
+        assertTrue(filter.mightContain(3L));
+    }
+
+    @Test
+    void shouldAddIdsWrittenOnOtherNodesFromTheChangeFeed() {
+        when(productRepository.findAllIds()).thenReturn(List.of(1L));
+        filter.rebuild();
+        var position = new ChangeCursor(100, 1);
+        when(productChangeRepository.findAfter(new ChangeCursor(99, Long.MAX_VALUE), 1000))
+            .thenReturn(List.of(new ProductChange(ProductChange.Type.UPSERT, 7000L, null, null, position)));
+
+        assertFalse(filter.mightContain(7000L));
+        filter.sync();
+
+        assertTrue(filter.mightContain(7000L));
+        when(productChangeRepository.findAfter(position, 1000)).thenReturn(List.of());
+        filter.sync();
+        verify(productChangeRepository).findAfter(position, 1000);
+    }
+
+    @Test
+    void shouldAllowEveryIdWhenTheChangeFeedIsBehind() {
+        when(productRepository.findAllIds()).thenReturn(List.of(1L));
+        var lagging = new ProductIdFilter(productRepository, productChangeRepository, true, 0.01, Duration.ZERO);
+        lagging.rebuild();
+
+        assertTrue(lagging.mightContain(404L));
+    }
+
+    @Test
+    void shouldRebuildOnResync() {
+        when(productRepository.findAllIds()).thenReturn(List.of(1L), List.of(1L, 5000L));
+        filter.rebuild();
+
+        filter.onCatalogEvent(new CatalogEvent("e1", CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.RESYNC, List.of()));
+
+        assertTrue(filter.mightContain(5000L));
+        verify(productRepository, times(2)).findAllIds();
+    }
+
+    @Test
+    void shouldAllowEveryIdAfterInvalidationUntilRebuilt() {
+        when(productRepository.findAllIds()).thenReturn(List.of(1L));
+        filter.rebuild();
+
+        filter.invalidate();
+
+        assertTrue(filter.mightContain(404L));
+    }
+
+    @Test
+    void shouldNotLoadWhenDisabled() {
+        var disabled = new ProductIdFilter(productRepository, productChangeRepository, false, 0.01, Duration.ofHours(1));
+        disabled.rebuild();
+        disabled.sync();
+
+        verifyNoInteractions(productRepository, productChangeRepository);
+    }
+}
@@ -0,0 +1,269 @@
+package com.simplesdental.product.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private Cache remote;
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TwoLevelCache("userContext", Caffeine.newBuilder().maximumSize(10).build(), remote, publisher);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromLocalCache() {
+        when(remote.get("john@example.com")).thenReturn(new SimpleValueWrapper("context"));
+
+        assertEquals("context", cache.get("john@example.com").get());
+        assertEquals("context", cache.get("john@example.com").get());
+
+        verify(remote, times(1)).get("john@example.com");
+    }
+
+    @Test
+    void shouldReturnNullWhenMissingOnBothLevels() {
+        when(remote.get("john@example.com")).thenReturn(null);
+
+        assertNull(cache.get("john@example.com"));
+    }
+
+    @Test
+    void shouldEvictBothLevelsAndPublishWhenEvicting() {
+        when(remote.get("john@example.com")).thenReturn(new SimpleValueWrapper("context"), (Cache.ValueWrapper) null);
+        cache.get("john@example.com");
+
+        cache.evict("john@example.com");
+
+        assertNull(cache.get("john@example.com"));
+        verify(remote).evict("john@example.com");
+        verify(publisher).publish("userContext", "john@example.com");
+    }
+
+    @Test
+    void shouldWriteBothLevelsAndPublishWhenPutting() {
+        cache.put(1L, "product");
+
+        assertEquals("product", cache.get(1L).get());
+        verify(remote).put(1L, "product");
+        verify(remote, never()).get(any());
+        verify(publisher).publish("userContext", "1");
+    }
+
+    @Test
+    void shouldDropOnlyLocalEntryOnRemoteInvalidation() {
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper("product"));
+        cache.get(1L);
+
+        cache.evictLocal("1");
+        cache.get(1L);
+
+        verify(remote, times(2)).get(1L);
+        verify(remote, never()).evict(any());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void shouldClearBothLevelsAndPublishWhenClearing() {
+        cache.put(1L, "product");
+
+        cache.clear();
+
+        verify(remote).clear();
+        verify(publisher).publish("userContext", null);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void shouldReadLocalMissesInOneRemoteBatch() {
+        var remoteBatch = mock(RemoteBatchAccess.class);
+        var batchCache = new TwoLevelCache("products", Caffeine.newBuilder().maximumSize(10).build(), remote,
+            publisher, remoteBatch);
+        batchCache.putAll(Map.of(1L, "cached"));
+        when(remoteBatch.getAll(List.of("2", "3"))).thenReturn(Arrays.asList("remote", null));
+
+        var values = batchCache.getAll(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of("1", "cached", "2", "remote"), values);
+        assertEquals("remote", batchCache.get(2L).get());
+        verify(remoteBatch).putAll(Map.of("1", "cached"));
+        verify(remote, never()).get(any());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void shouldReportKeysCachedAsNotExistingInBatchReads() {
+        var remoteBatch = mock(RemoteBatchAccess.class);
+        var batchCache = new TwoLevelCache("products", Caffeine.newBuilder().maximumSize(10).build(), remote,
+            publisher, remoteBatch);
+        var entries = new HashMap<Long, Object>();
+        entries.put(1L, null);
+        batchCache.putAll(entries);
+        when(remoteBatch.getAll(List.of("2", "3"))).thenReturn(Arrays.asList(NullValue.INSTANCE, null));
+
+        var values = batchCache.getAll(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of("1", NullValue.INSTANCE, "2", NullValue.INSTANCE), values);
+        assertNull(batchCache.get(2L).get());
+    }
+
+    @Test
+    void shouldReadRemoteKeyByKeyWithoutBatchAccess() {
+        when(remote.get("1")).thenReturn(new SimpleValueWrapper("product"));
+
+        var values = cache.getAll(List.of(1L, 2L));
+
+        assertEquals(Map.of("1", "product"), values);
+        verify(remote).get("2");
+    }
+
+    @Test
+    void shouldEvictManyKeysInOneRemoteBatch() {
+        var remoteBatch = mock(RemoteBatchAccess.class);
+        var batchCache = new TwoLevelCache("products", Caffeine.newBuilder().maximumSize(10).build(), remote,
+            publisher, remoteBatch);
+        batchCache.putAll(Map.of(1L, "one", 2L, "two"));
+
+        batchCache.evictAll(List.of(1L, 2L));
+
+        verify(remoteBatch).evictAll(List.of("1", "2"));
+        verify(publisher).publishAll("products", List.of("1", "2"));
+        verify(remote, never()).evict(any());
+        when(remoteBatch.getAll(List.of("1"))).thenReturn(Arrays.asList((Object) null));
+        assertTrue(batchCache.getAll(List.of(1L)).isEmpty());
+    }
+
+    @Test
+    void shouldLoadConcurrentMissesOfAKeyOnce() throws Exception {
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> cache.get("john@example.com", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "context";
+                })));
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+            release.countDown();
+
+            for (var result : results) {
+                assertEquals("context", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        verify(remote).put("john@example.com", "context");
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void shouldCacheLoadedNull() {
+        assertNull(cache.get(1L, () -> null));
+        assertNull(cache.get(1L, () -> fail("Should answer the cached miss")));
+
+        verify(remote).get(1L);
+        verify(remote).put(1L, null);
+    }
+
+    @Test
+    void shouldWrapLoaderFailures() {
+        var failure = new IllegalStateException("Database down");
+
+        var thrown = assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(1L, () -> {
+            throw failure;
+        }));
+
+        assertSame(failure, thrown.getCause());
+    }
+
+    @Test
+    void shouldWaitForAnotherNodeToFillKeyWhenLockIsTaken() throws Exception {
+        var loadLock = mock(RemoteLoadLock.class);
+        var lockedCache = new TwoLevelCache("userContext", Caffeine.newBuilder().maximumSize(10).build(), remote,
+            publisher, null, loadLock, new StampedeProtection(true, Duration.ofSeconds(10), Duration.ofSeconds(1), 0));
+        when(loadLock.tryLock("john@example.com", Duration.ofSeconds(10))).thenReturn(false);
+        when(remote.get("john@example.com")).thenReturn(null, null, new SimpleValueWrapper("context"));
+
+        var value = lockedCache.get("john@example.com", () -> fail("Should use the value loaded by the lock holder"));
+
+        assertEquals("context", value);
+        verify(remote, never()).put(any(), any());
+    }
+
+    @Test
+    void shouldLoadUnderLockAndReleaseIt() throws Exception {
+        var loadLock = mock(RemoteLoadLock.class);
+        var lockedCache = new TwoLevelCache("userContext", Caffeine.newBuilder().maximumSize(10).build(), remote,
+            publisher, null, loadLock, new StampedeProtection(true, Duration.ofSeconds(10), Duration.ofSeconds(1), 0));
+        when(loadLock.tryLock("john@example.com", Duration.ofSeconds(10))).thenReturn(true);
+
+        assertEquals("context", lockedCache.get("john@example.com", () -> "context"));
+
+        var inOrder = inOrder(loadLock, remote);
+        inOrder.verify(remote).put("john@example.com", "context");
+        inOrder.verify(loadLock).unlock("john@example.com");
+    }
+
+    @Test
+    void shouldRefreshEntryEarlyWhenItIsAboutToExpire() throws Exception {
+        var remoteBatch = mock(RemoteBatchAccess.class);
+        var refreshingCache = new TwoLevelCache("products", Caffeine.newBuilder().maximumSize(10).build(), remote,
+            publisher, remoteBatch, null, new StampedeProtection(false, Duration.ZERO, Duration.ZERO, 1e9));
+        // The first load gives the cache a load time to weigh the remaining TTL against.
+        assertEquals("first", refreshingCache.get(1L, () -> "first"));
+        refreshingCache.evictLocal("1");
+        when(remoteBatch.getWithTtl("1")).thenReturn(new RemoteBatchAccess.Entry("first", Duration.ofMillis(5)));
+
+        assertEquals("second", refreshingCache.get(1L, () -> "second"));
+
+        verify(remote).put(1L, "second");
+    }
+
+    @Test
+    void shouldServeRemoteEntryFarFromExpiry() throws Exception {
+        var remoteBatch = mock(RemoteBatchAccess.class);
+        var refreshingCache = new TwoLevelCache("products", Caffeine.newBuilder().maximumSize(10).build(), remote,
+            publisher, remoteBatch, null, new StampedeProtection(false, Duration.ZERO, Duration.ZERO, 1.0));
+        when(remoteBatch.getWithTtl("1")).thenReturn(new RemoteBatchAccess.Entry("cached", Duration.ofMinutes(10)));
+
+        assertEquals("cached", refreshingCache.get(1L, () -> fail("Should not reload a fresh entry")));
+
+        verify(remote, never()).put(any(), any());
+    }
+}
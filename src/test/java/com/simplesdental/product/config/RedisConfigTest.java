@@ -0,0 +1,121 @@
+package com.simplesdental.product.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.simplesdental.product.cache.CacheInvalidationPublisher;
+import com.simplesdental.product.cache.ProductIdFilter;
+import com.simplesdental.product.cache.TwoLevelCache;
+import com.simplesdental.product.cache.TwoLevelCacheManager;
+import com.simplesdental.product.events.CatalogEventStream;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RedisConfigTest {
+
+    private RedisConfig redisConfig;
+
+    @BeforeEach
+    void setUp() {
+        redisConfig = new RedisConfig();
+        ReflectionTestUtils.setField(redisConfig, "defaultTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(redisConfig, "userContextTtl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(redisConfig, "userStateTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(redisConfig, "productsTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(redisConfig, "notFoundTtl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(redisConfig, "localMaximumSize", 100L);
+        ReflectionTestUtils.setField(redisConfig, "localTtl", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldApplyConfiguredTtlToEachCache() {
+        CacheManager cacheManager = redisConfig.cacheManager(
+            mock(RedisConnectionFactory.class), mock(CacheInvalidationPublisher.class));
+        ((TwoLevelCacheManager) cacheManager).initializeCaches();
+
+        assertEquals(Duration.ofMinutes(15), ttlOf(cacheManager, CacheNames.USER_CONTEXT));
+        assertEquals(Duration.ofMinutes(1), ttlOf(cacheManager, CacheNames.USER_STATE));
+        assertEquals(Duration.ofMinutes(5), ttlOf(cacheManager, CacheNames.PRODUCTS));
+        assertEquals(Duration.ofMinutes(5), ttlOf(cacheManager, CacheNames.PRODUCTS_BY_CODE));
+    }
+
+    @Test
+    void shouldShortenEachTtlByUpToTheConfiguredJitter() {
+        ReflectionTestUtils.setField(redisConfig, "ttlJitter", 0.1);
+        CacheManager cacheManager = redisConfig.cacheManager(
+            mock(RedisConnectionFactory.class), mock(CacheInvalidationPublisher.class));
+        ((TwoLevelCacheManager) cacheManager).initializeCaches();
+
+        for (int i = 0; i < 100; i++) {
+            var ttl = ttlOf(cacheManager, CacheNames.PRODUCTS);
+            assertTrue(ttl.compareTo(Duration.ofMinutes(5)) <= 0, "TTL above configured: " + ttl);
+            assertTrue(ttl.compareTo(Duration.ofSeconds(270)) >= 0, "TTL below jitter range: " + ttl);
+        }
+    }
+
+    @Test
+    void shouldApplyNotFoundTtlToCachedNulls() {
+        CacheManager cacheManager = redisConfig.cacheManager(
+            mock(RedisConnectionFactory.class), mock(CacheInvalidationPublisher.class));
+        ((TwoLevelCacheManager) cacheManager).initializeCaches();
+
+        assertEquals(Duration.ofSeconds(30), remoteOf(cacheManager, CacheNames.PRODUCTS).getCacheConfiguration()
+            .getTtlFunction().getTimeToLive(1L, null));
+    }
+
+    @Test
+    void shouldFrontRedisWithTransactionAwareTwoLevelCaches() {
+        CacheManager cacheManager = redisConfig.cacheManager(
+            mock(RedisConnectionFactory.class), mock(CacheInvalidationPublisher.class));
+        ((TwoLevelCacheManager) cacheManager).initializeCaches();
+
+        var cache = (TransactionAwareCacheDecorator) cacheManager.getCache(CacheNames.USER_CONTEXT);
+
+        assertInstanceOf(TwoLevelCache.class, cache.getTargetCache());
+    }
+
+    @Test
+    void shouldDeliverCatalogEventsOnOneThreadInArrivalOrder() throws InterruptedException {
+        ReflectionTestUtils.setField(redisConfig, "catalogEventChannel", "catalog-events");
+        var container = redisConfig.catalogEventListenerContainer(
+            mock(RedisConnectionFactory.class), mock(CatalogEventStream.class), mock(ProductIdFilter.class));
+        var executor = (Executor) ReflectionTestUtils.getField(container, "taskExecutor");
+
+        var delivered = new CopyOnWriteArrayList<Integer>();
+        var threads = ConcurrentHashMap.<Thread>newKeySet();
+        var done = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            int message = i;
+            executor.execute(() -> {
+                delivered.add(message);
+                threads.add(Thread.currentThread());
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 100).boxed().toList(), delivered);
+        assertEquals(1, threads.size());
+    }
+
+    private Duration ttlOf(CacheManager cacheManager, String cacheName) {
+        return remoteOf(cacheManager, cacheName).getCacheConfiguration().getTtlFunction().getTimeToLive("key", "value");
+    }
+
+    private RedisCache remoteOf(CacheManager cacheManager, String cacheName) {
+        var cache = (TransactionAwareCacheDecorator) cacheManager.getCache(cacheName);
+        return (RedisCache) ReflectionTestUtils.getField(cache.getTargetCache(), "remote");
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 import com.simplesdental.product.exception.BusinessException;
 import com.simplesdental.product.exception.ResourceNotFoundException;
 import com.simplesdental.product.model.Category;
+import com.simplesdental.product.pagination.SliceResponse;
 import com.simplesdental.product.service.CategoryService;
 import java.util.Collections;
 import java.util.List;
@@ -20,6 +21,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -76,6 +79,7 @@ class CategoryControllerTest {
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(category, response.getBody());
+        assertEquals("\"0\"", response.getHeaders().getETag());
         verify(categoryService).findById(1L);
     }
 
@@ -150,4 +154,18 @@ class CategoryControllerTest {
         assertThrows(ResourceNotFoundException.class, () -> categoryController.deleteCategory(1L));
         verify(categoryService).deleteById(1L);
     }
-} 
+
+    @Test
+    void shouldReturnSliceWithApproximateTotalWhenRequested() {
+        Slice<Category> slice = new SliceImpl<>(List.of(category), pageable, false);
+        when(categoryService.findAllSlice(any(Pageable.class))).thenReturn(slice);
+        when(categoryService.estimateCount()).thenReturn(5L);
+
+        ResponseEntity<SliceResponse<Category>> response = categoryController.getCategoriesSlice(pageable, true);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(category), response.getBody().content());
+        assertFalse(response.getBody().hasNext());
+        assertEquals(5L, response.getBody().approximateTotal());
+    }
+}
@@ -0,0 +1,60 @@
+package com.simplesdental.product.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.product.model.Category;
+import com.simplesdental.product.model.Product;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import com.simplesdental.product.service.ProductService;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+
+@ExtendWith(MockitoExtension.class)
+class ProductControllerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private ProductController productController;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldListProductsInTheSameShapeAsTheProductResource() throws Exception {
+        var category = Category.builder().id(1L).name("Eletrônicos").description("Aparelhos").build();
+        var product = Product.builder().id(7L).name("Notebook").description("15 polegadas")
+            .price(new BigDecimal("3999.99")).status(true).code(2).category(category).build();
+        var summary = new ProductSummary(7L, "Notebook", "15 polegadas", new BigDecimal("3999.99"), true, 2,
+            1L, "Eletrônicos", "Aparelhos");
+        var pageable = PageRequest.of(0, 10);
+        when(productService.findAll(pageable)).thenReturn(new PageImpl<>(List.of(summary), pageable, 1));
+        when(productService.findById(7L)).thenReturn(Optional.of(product));
+
+        var listed = objectMapper.valueToTree(productController.getAllProducts(pageable).getBody()).get("content").get(0);
+        var fetched = objectMapper.valueToTree(productController.getProductById(7L).getBody());
+
+        assertTrue(listed.get("code").isInt());
+        assertEquals(2, listed.get("code").intValue());
+        assertEquals(1L, listed.get("category").get("id").longValue());
+        listed.fieldNames().forEachRemaining(field -> assertEquals(fetched.get(field).asText(), listed.get(field).asText(), field));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenProductDoesNotExist() {
+        when(productService.findById(404L)).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, productController.getProductById(404L).getStatusCode());
+    }
+}
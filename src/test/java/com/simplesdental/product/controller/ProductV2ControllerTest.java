@@ -1,12 +1,33 @@
 package com.simplesdental.product.controller;
 
+import com.simplesdental.product.controller.dto.product.v2.BatchCreateProductsResponse;
+import com.simplesdental.product.controller.dto.product.v2.BatchProductResult;
+import com.simplesdental.product.controller.dto.product.v2.BulkUpdateProductsResponse;
 import com.simplesdental.product.controller.dto.product.v2.CreateProductV2DTO;
+import com.simplesdental.product.controller.dto.product.v2.PatchProductV2DTO;
+import com.simplesdental.product.controller.dto.product.v2.ProductChangesResponse;
+import com.simplesdental.product.controller.dto.product.v2.ProductImportResponse;
+import com.simplesdental.product.controller.dto.product.v2.ProductLookupResponse;
 import com.simplesdental.product.controller.dto.product.v2.UpdateProductV2DTO;
+import com.simplesdental.product.events.CatalogEventStream;
 import com.simplesdental.product.exception.BusinessException;
 import com.simplesdental.product.exception.ResourceNotFoundException;
+import com.simplesdental.product.exporting.ProductExportFormat;
+import com.simplesdental.product.importing.ProductImportFormat;
 import com.simplesdental.product.model.Category;
 import com.simplesdental.product.model.Product;
+import com.simplesdental.product.pagination.CursorPage;
+import com.simplesdental.product.pagination.ProductSortKey;
+import com.simplesdental.product.pagination.SliceResponse;
+import com.simplesdental.product.repository.ProductFilter;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import com.simplesdental.product.service.ProductBulkUpdateService;
+import com.simplesdental.product.service.ProductExportService;
+import com.simplesdental.product.service.ProductImportService;
 import com.simplesdental.product.service.ProductService;
+import com.simplesdental.product.suggest.ProductSuggestion;
+import com.simplesdental.product.suggest.ProductSuggestionIndex;
+import java.io.ByteArrayOutputStream;
 import java.util.Collections;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,8 +40,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
@@ -29,6 +56,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,10 +65,26 @@ class ProductV2ControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductImportService productImportService;
+
+    @Mock
+    private ProductExportService productExportService;
+
+    @Mock
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    @Mock
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @Mock
+    private CatalogEventStream catalogEventStream;
+
     @InjectMocks
     private ProductV2Controller productV2Controller;
 
     private Product product;
+    private ProductSummary summary;
     private CreateProductV2DTO createProductV2DTO;
     private UpdateProductV2DTO updateProductV2DTO;
     private Pageable pageable;
@@ -63,6 +107,9 @@ class ProductV2ControllerTest {
             .category(category)
             .build();
 
+        summary = new ProductSummary(1L, "Test Product", "Test Description", new BigDecimal("100.00"), true, 1,
+            1L, "Test Category", null);
+
         createProductV2DTO = new CreateProductV2DTO(
             "New Product",
             "New Description",
@@ -107,30 +154,29 @@ class ProductV2ControllerTest {
 
     @Test
     void shouldUpdateProductSuccessfullyWhenValidDataIsProvided() {
-        when(productService.update(anyLong(), any(UpdateProductV2DTO.class))).thenReturn(updateProductV2DTO);
+        when(productService.update(anyLong(), any(UpdateProductV2DTO.class), any())).thenReturn(updateProductV2DTO);
 
-        ResponseEntity<UpdateProductV2DTO> response = productV2Controller.updateProduct(1L, updateProductV2DTO);
+        ResponseEntity<UpdateProductV2DTO> response = productV2Controller.updateProduct(1L, updateProductV2DTO, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(updateProductV2DTO, response.getBody());
-        verify(productService).update(1L, updateProductV2DTO);
+        verify(productService).update(1L, updateProductV2DTO, null);
     }
 
     @Test
     void shouldThrowResourceNotFoundExceptionWhenUpdatingNonExistentProduct() {
-        when(productService.update(anyLong(), any(UpdateProductV2DTO.class)))
+        when(productService.update(anyLong(), any(UpdateProductV2DTO.class), any()))
             .thenThrow(new ResourceNotFoundException("Product", "id", 1L));
 
         assertThrows(ResourceNotFoundException.class, () -> 
-            productV2Controller.updateProduct(1L, updateProductV2DTO));
-        verify(productService).update(1L, updateProductV2DTO);
+            productV2Controller.updateProduct(1L, updateProductV2DTO, null));
+        verify(productService).update(1L, updateProductV2DTO, null);
     }
 
     @Test
     void shouldDeleteProductSuccessfullyWhenValidIdIsProvided() {
-        when(productService.findById(any())).thenReturn(Optional.of(product));
-        doNothing().when(productService).deleteById(anyLong());
+        when(productService.deleteById(1L)).thenReturn(true);
 
         ResponseEntity<Void> response = productV2Controller.deleteProduct(1L);
 
@@ -141,7 +187,7 @@ class ProductV2ControllerTest {
 
     @Test
     void shouldReturnNotFoundWhenDeletingNonExistentProduct() {
-        when(productService.findById(any())).thenReturn(Optional.empty());
+        when(productService.deleteById(1L)).thenReturn(false);
         ResponseEntity<Void> response = productV2Controller.deleteProduct(1L);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -149,24 +195,261 @@ class ProductV2ControllerTest {
 
     @Test
     void shouldReturnPageOfProductsWhenRequestingAllProducts() {
-        List<Product> products = Collections.singletonList(product);
-        Page<Product> productPage = new PageImpl<>(products, pageable, products.size());
-        when(productService.findAll(any(Pageable.class))).thenReturn(productPage);
+        List<ProductSummary> products = Collections.singletonList(summary);
+        Page<ProductSummary> productPage = new PageImpl<>(products, pageable, products.size());
+        when(productService.findAll(any(ProductFilter.class), any(Pageable.class))).thenReturn(productPage);
 
-        ResponseEntity<Page<Product>> response = productV2Controller.getAllProducts(pageable);
+        ResponseEntity<Page<ProductSummary>> response = productV2Controller.getAllProducts(ProductFilter.none(), pageable);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(productPage, response.getBody());
-        verify(productService).findAll(pageable);
+        verify(productService).findAll(ProductFilter.none(), pageable);
     }
 
     @Test
     void shouldThrowBusinessExceptionWhenErrorOccursWhileFetchingProducts() {
-        when(productService.findAll(any(Pageable.class)))
+        when(productService.findAll(any(ProductFilter.class), any(Pageable.class)))
             .thenThrow(new BusinessException("Database error"));
 
-        assertThrows(BusinessException.class, () -> productV2Controller.getAllProducts(pageable));
-        verify(productService).findAll(pageable);
+        assertThrows(BusinessException.class, () -> productV2Controller.getAllProducts(ProductFilter.none(), pageable));
+        verify(productService).findAll(ProductFilter.none(), pageable);
+    }
+
+    @Test
+    void shouldReturnCursorPageWhenScrollingProducts() {
+        CursorPage<ProductSummary> page = new CursorPage<>(List.of(summary), 1, null);
+        when(productService.findAllAfter(ProductSortKey.NAME, null, 10)).thenReturn(page);
+
+        ResponseEntity<CursorPage<ProductSummary>> response = productV2Controller.scrollProducts(null, 10, "name");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenScrollSizeIsOutOfRange() {
+        assertThrows(BusinessException.class, () -> productV2Controller.scrollProducts(null, 0, "id"));
+        assertThrows(BusinessException.class, () -> productV2Controller.scrollProducts(null, 101, "id"));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldReturnSliceWithoutEstimateWhenApproximateTotalIsNotRequested() {
+        Slice<ProductSummary> slice = new SliceImpl<>(List.of(summary), pageable, true);
+        when(productService.findAllSlice(any(ProductFilter.class), any(Pageable.class))).thenReturn(slice);
+
+        ResponseEntity<SliceResponse<ProductSummary>> response = productV2Controller.getProductsSlice(ProductFilter.none(), pageable, false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().hasNext());
+        assertNull(response.getBody().approximateTotal());
+        verify(productService, never()).estimateCount();
+    }
+
+    @Test
+    void shouldReturnItemResultsWhenCreatingProductsInBatch() {
+        var response = BatchCreateProductsResponse.of(List.of(BatchProductResult.created(0, 1L)));
+        when(productService.saveAll(List.of(createProductV2DTO))).thenReturn(response);
+
+        ResponseEntity<BatchCreateProductsResponse> result = productV2Controller.createProducts(List.of(createProductV2DTO));
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(response, result.getBody());
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() {
+        assertThrows(BusinessException.class, () -> productV2Controller.createProducts(List.of()));
+        verify(productService, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldRejectBatchLargerThanLimit() {
+        var input = Collections.nCopies(1001, createProductV2DTO);
+
+        assertThrows(BusinessException.class, () -> productV2Controller.createProducts(input));
+        verify(productService, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldStreamRequestBodyToImportServiceWhenImportingCsv() throws Exception {
+        var request = new MockHttpServletRequest();
+        request.setContentType("text/csv; charset=UTF-8");
+        request.setContent("name,price,status,categoryId\nA,1.00,true,1\n".getBytes());
+        var response = new ProductImportResponse(1, 1, 0, List.of());
+        when(productImportService.importProducts(any(), eq(ProductImportFormat.CSV))).thenReturn(response);
+
+        var result = productV2Controller.importProducts(request);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(response, result.getBody());
+    }
+
+    @Test
+    void shouldRejectImportWithUnsupportedContentType() {
+        var request = new MockHttpServletRequest();
+        request.setContentType("application/json");
+
+        assertThrows(BusinessException.class, () -> productV2Controller.importProducts(request));
+        verifyNoInteractions(productImportService);
+    }
+
+    @Test
+    void shouldStreamExportWithContentTypeOfRequestedFormat() throws Exception {
+        var response = productV2Controller.exportProducts("csv");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"products.csv\"",
+            response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        verifyNoInteractions(productExportService);
+
+        var output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        verify(productExportService).exportProducts(output, ProductExportFormat.CSV);
+    }
+
+    @Test
+    void shouldRejectExportWithUnsupportedFormat() {
+        assertThrows(BusinessException.class, () -> productV2Controller.exportProducts("xml"));
+        verifyNoInteractions(productExportService);
+    }
+
+    @Test
+    void shouldReturnBulkUpdateResultWhenPatchingProducts() {
+        var input = List.of(new PatchProductV2DTO(1L, new BigDecimal("10.00"), null));
+        var result = new BulkUpdateProductsResponse(1, List.of());
+        when(productBulkUpdateService.patch(input)).thenReturn(result);
+
+        var response = productV2Controller.patchProducts(input);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void shouldRejectEmptyPatch() {
+        assertThrows(BusinessException.class, () -> productV2Controller.patchProducts(List.of()));
+        verifyNoInteractions(productBulkUpdateService);
+    }
+
+    @Test
+    void shouldPassFilterToServiceWhenListingProducts() {
+        var filter = new ProductFilter(1L, true, new BigDecimal("10"), new BigDecimal("500"), "note");
+        Page<ProductSummary> productPage = new PageImpl<>(List.of(summary), pageable, 1);
+        when(productService.findAll(filter, pageable)).thenReturn(productPage);
+
+        var response = productV2Controller.getAllProducts(filter, pageable);
+
+        assertEquals(productPage, response.getBody());
+    }
+
+    @Test
+    void shouldTrimQueryWhenSearchingProducts() {
+        CursorPage<ProductSummary> page = new CursorPage<>(List.of(summary), 1, null);
+        when(productService.search("notebook", null, 20)).thenReturn(page);
+
+        var response = productV2Controller.searchProducts("  notebook ", null, 20);
+
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void shouldRejectBlankSearch() {
+        assertThrows(BusinessException.class, () -> productV2Controller.searchProducts(" ", null, 20));
+        assertThrows(BusinessException.class, () -> productV2Controller.searchProducts("mesa", null, 0));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldReturnSuggestionsFromIndex() {
+        var suggestions = List.of(new ProductSuggestion(1L, "Test Product"));
+        when(productSuggestionIndex.suggest("tes", 10)).thenReturn(suggestions);
+
+        var response = productV2Controller.suggestProducts("tes", 10);
+
+        assertEquals(suggestions, response.getBody());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldRejectSuggestionLimitOutOfRange() {
+        assertThrows(BusinessException.class, () -> productV2Controller.suggestProducts("tes", 21));
+        verifyNoInteractions(productSuggestionIndex);
+    }
+
+    @Test
+    void shouldReturnProductWhenRequestingByCode() {
+        when(productService.findByCode(1)).thenReturn(Optional.of(product));
+
+        ResponseEntity<Product> response = productV2Controller.getProductByCode(1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(product, response.getBody());
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenNoProductHasTheCode() {
+        when(productService.findByCode(99)).thenReturn(Optional.empty());
+
+        ResponseEntity<Product> response = productV2Controller.getProductByCode(99);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void shouldReturnProductsInRequestOrderWhenLookingUpIds() {
+        var lookup = new ProductLookupResponse(Arrays.asList(product, null), List.of(99L));
+        when(productService.findAllById(List.of(1L, 99L))).thenReturn(lookup);
+
+        ResponseEntity<ProductLookupResponse> response = productV2Controller.lookupProducts(List.of(1L, 99L));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(lookup, response.getBody());
+    }
+
+    @Test
+    void shouldRejectEmptyLookup() {
+        assertThrows(BusinessException.class, () -> productV2Controller.lookupProducts(List.of()));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldReturnETagFromRowVersionsWhenRequestingById() {
+        product.setVersion(3L);
+        product.getCategory().setVersion(1L);
+        when(productService.findById(1L)).thenReturn(Optional.of(product));
+
+        ResponseEntity<Product> response = productV2Controller.getProductById(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3.1\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void shouldReturnProductChangesSinceCursor() {
+        var changes = new ProductChangesResponse(List.of(), "NzU0fDEw", false);
+        when(productService.findChanges("NzU0fDEw", 500)).thenReturn(changes);
+
+        ResponseEntity<ProductChangesResponse> response = productV2Controller.getProductChanges("NzU0fDEw", 500);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(changes, response.getBody());
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenChangesSizeIsOutOfRange() {
+        assertThrows(BusinessException.class, () -> productV2Controller.getProductChanges(null, 1001));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldResumeProductStreamFromLastEventId() {
+        var emitter = new SseEmitter();
+        when(catalogEventStream.subscribe("event-1")).thenReturn(emitter);
+
+        assertSame(emitter, productV2Controller.streamProductChanges("event-1"));
     }
-} 
+}
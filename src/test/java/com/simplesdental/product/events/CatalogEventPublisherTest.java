@@ -0,0 +1,54 @@
+package com.simplesdental.product.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.simplesdental.product.outbox.OutboxWriter;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogEventPublisherTest {
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @InjectMocks
+    private CatalogEventPublisher catalogEventPublisher;
+
+    @Test
+    void shouldWriteEventWithChangedIdsToOutbox() {
+        catalogEventPublisher.publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.UPDATED, 7L);
+
+        var event = ArgumentCaptor.forClass(CatalogEvent.class);
+        verify(outboxWriter).publish(event.capture());
+        assertEquals(CatalogEvent.Type.UPDATED, event.getValue().type());
+        assertEquals(List.of(7L), event.getValue().ids());
+        assertNotNull(event.getValue().id());
+    }
+
+    @Test
+    void shouldPublishResyncInsteadOfTooManyIds() {
+        var ids = LongStream.rangeClosed(1, CatalogEventPublisher.MAX_IDS_PER_EVENT + 1).boxed().toList();
+
+        catalogEventPublisher.publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.UPDATED, ids);
+
+        var event = ArgumentCaptor.forClass(CatalogEvent.class);
+        verify(outboxWriter).publish(event.capture());
+        assertEquals(CatalogEvent.Type.RESYNC, event.getValue().type());
+        assertTrue(event.getValue().ids().isEmpty());
+    }
+
+    @Test
+    void shouldPublishNothingWhenNoRowChanged() {
+        catalogEventPublisher.publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.UPDATED, List.of());
+
+        verifyNoInteractions(outboxWriter);
+    }
+}
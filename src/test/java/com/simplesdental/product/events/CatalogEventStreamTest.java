@@ -0,0 +1,113 @@
+package com.simplesdental.product.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.simplesdental.product.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class CatalogEventStreamTest {
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private final List<Runnable> pendingSends = new ArrayList<>();
+
+    @Test
+    void shouldPushDispatchedEventsToOpenConnections() {
+        var stream = stream(10, 10, Runnable::run);
+        stream.subscribe(null);
+
+        stream.dispatch(event("e1", CatalogEvent.Type.UPDATED, 7L));
+
+        assertEquals(1, emitters.get(0).sent.size());
+        assertTrue(emitters.get(0).sent.get(0).contains("event:product.updated"));
+        assertTrue(emitters.get(0).sent.get(0).contains("id:e1"));
+    }
+
+    @Test
+    void shouldReplayEventsMissedAfterLastEventId() {
+        var stream = stream(10, 10, Runnable::run);
+        stream.dispatch(event("e1", CatalogEvent.Type.CREATED, 1L));
+        stream.dispatch(event("e2", CatalogEvent.Type.UPDATED, 1L));
+        stream.dispatch(event("e3", CatalogEvent.Type.DELETED, 1L));
+
+        stream.subscribe("e1");
+
+        var sent = emitters.get(0).sent;
+        assertEquals(2, sent.size());
+        assertTrue(sent.get(0).contains("id:e2"));
+        assertTrue(sent.get(1).contains("id:e3"));
+    }
+
+    @Test
+    void shouldAskForResyncWhenLastEventIdIsNoLongerKept() {
+        var stream = stream(2, 10, Runnable::run);
+        stream.dispatch(event("e1", CatalogEvent.Type.CREATED, 1L));
+        stream.dispatch(event("e2", CatalogEvent.Type.UPDATED, 1L));
+        stream.dispatch(event("e3", CatalogEvent.Type.UPDATED, 1L));
+
+        stream.subscribe("e1");
+
+        var sent = emitters.get(0).sent;
+        assertEquals(1, sent.size());
+        assertTrue(sent.get(0).contains("event:product.resync"));
+        assertTrue(sent.get(0).contains("id:e3"));
+    }
+
+    @Test
+    void shouldDisconnectClientThatFallsBehindItsBuffer() {
+        var stream = stream(10, 2, pendingSends::add);
+        stream.subscribe(null);
+
+        stream.dispatch(event("e1", CatalogEvent.Type.UPDATED, 1L));
+        stream.dispatch(event("e2", CatalogEvent.Type.UPDATED, 2L));
+        stream.dispatch(event("e3", CatalogEvent.Type.UPDATED, 3L));
+
+        assertTrue(emitters.get(0).completed);
+        assertEquals(0, stream.connections());
+    }
+
+    @Test
+    void shouldRejectConnectionsPastTheLimit() {
+        var stream = new CatalogEventStream(10, 10, 1, this::newEmitter, Runnable::run, new SimpleMeterRegistry());
+        stream.subscribe(null);
+
+        assertThrows(ServiceUnavailableException.class, () -> stream.subscribe(null));
+    }
+
+    private CatalogEventStream stream(int replaySize, int bufferSize, Executor sender) {
+        return new CatalogEventStream(replaySize, bufferSize, 100, this::newEmitter, sender, new SimpleMeterRegistry());
+    }
+
+    private SseEmitter newEmitter() {
+        var emitter = new RecordingEmitter();
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    private static CatalogEvent event(String id, CatalogEvent.Type type, Long productId) {
+        return new CatalogEvent(id, CatalogEvent.Entity.PRODUCT, type, List.of(productId));
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder.build().stream()
+                .map(data -> data.getData().toString())
+                .collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.simplesdental.product.exporting;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.product.exception.BusinessException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class ProductRowWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ExportedProduct notebook = new ExportedProduct(1L, "Notebook", "Tela 15\", 16GB",
+        new BigDecimal("3999.90"), true, 2, 1L, "Eletrônicos");
+    private final ExportedProduct mesa = new ExportedProduct(2L, "Mesa", null,
+        new BigDecimal("499.99"), false, null, 5L, "Móveis");
+
+    @Test
+    void shouldWriteCsvWithHeaderAndQuoteOnlyWhenNeeded() throws IOException {
+        var csv = writeAll(ProductExportFormat.CSV);
+
+        assertEquals("id,name,description,price,status,code,categoryId,categoryName\n"
+            + "1,Notebook,\"Tela 15\"\", 16GB\",3999.90,true,2,1,Eletrônicos\n"
+            + "2,Mesa,,499.99,false,,5,Móveis\n", csv);
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLineForNdjson() throws IOException {
+        var ndjson = writeAll(ProductExportFormat.NDJSON);
+
+        var lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(ndjson.endsWith("\n"));
+        assertEquals("{\"id\":1,\"name\":\"Notebook\",\"description\":\"Tela 15\\\", 16GB\",\"price\":3999.90,"
+            + "\"status\":true,\"code\":2,\"categoryId\":1,\"categoryName\":\"Eletrônicos\"}", lines[0]);
+        assertEquals("{\"id\":2,\"name\":\"Mesa\",\"description\":null,\"price\":499.99,"
+            + "\"status\":false,\"code\":null,\"categoryId\":5,\"categoryName\":\"Móveis\"}", lines[1]);
+    }
+
+    @Test
+    void shouldWriteOnlyCsvHeaderWhenThereAreNoProducts() throws IOException {
+        var output = new ByteArrayOutputStream();
+        ProductRowWriter.of(ProductExportFormat.CSV, output, objectMapper).finish();
+
+        assertEquals(CsvProductRowWriter.HEADER + "\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRejectUnknownExportFormat() {
+        assertEquals(ProductExportFormat.CSV, ProductExportFormat.fromParameter("CSV"));
+        assertThrows(BusinessException.class, () -> ProductExportFormat.fromParameter("xml"));
+    }
+
+    private String writeAll(ProductExportFormat format) throws IOException {
+        var output = new ByteArrayOutputStream();
+        var writer = ProductRowWriter.of(format, output, objectMapper);
+        writer.write(notebook);
+        writer.write(mesa);
+        writer.finish();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
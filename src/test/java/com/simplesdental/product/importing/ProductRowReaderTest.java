@@ -0,0 +1,108 @@
+package com.simplesdental.product.importing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.product.controller.dto.product.v2.CreateProductV2DTO;
+import com.simplesdental.product.exception.BusinessException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProductRowReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldReadCsvRowsMappingColumnsByHeader() throws IOException {
+        var csv = "category_id,name,price,status,code,description\n"
+            + "1,Notebook,3999.99,true,2,\"Tela 15\"\", 16GB\"\n"
+            + "\n"
+            + "3,Smartphone,1299.90,FALSE,,\n";
+
+        var rows = readAll(ProductImportFormat.CSV, csv);
+
+        assertEquals(List.of(
+            ImportRow.of(2, new CreateProductV2DTO("Notebook", "Tela 15\", 16GB", new BigDecimal("3999.99"), true, 2, 1L)),
+            ImportRow.of(4, new CreateProductV2DTO("Smartphone", null, new BigDecimal("1299.90"), false, null, 3L))),
+            rows);
+    }
+
+    @Test
+    void shouldKeepLineBreaksInsideQuotedCsvFieldsAndCountLines() throws IOException {
+        var csv = "name,price,status,categoryId,description\r\n"
+            + "Mesa,499.99,true,5,\"Linha 1\nLinha 2\"\r\n"
+            + "Cadeira,899.99,true,5,";
+
+        var rows = readAll(ProductImportFormat.CSV, csv);
+
+        assertEquals(2, rows.size());
+        assertEquals("Linha 1\nLinha 2", rows.get(0).product().description());
+        assertEquals(2, rows.get(0).line());
+        assertEquals(4, rows.get(1).line());
+    }
+
+    @Test
+    void shouldReportUnparsableCsvValues() throws IOException {
+        var csv = "name,price,status,categoryId\nMesa,abc,talvez,1\n";
+
+        var rows = readAll(ProductImportFormat.CSV, csv);
+
+        assertNull(rows.get(0).product());
+        assertEquals(List.of("Preço inválido: abc", "Status inválido: talvez"), rows.get(0).errors());
+    }
+
+    @Test
+    void shouldRejectCsvWithoutRequiredColumn() {
+        var csv = "name,status,categoryId\nMesa,true,1\n";
+
+        assertThrows(BusinessException.class, () -> readAll(ProductImportFormat.CSV, csv));
+    }
+
+    @Test
+    void shouldRejectCsvWhoseQuoteIsNeverClosed() {
+        var csv = "name,price,status,categoryId,description\n"
+            + "Mesa,499.99,true,5,\"" + "x\n".repeat(ProductRowReader.MAX_RECORD_LENGTH);
+
+        var exception = assertThrows(BusinessException.class, () -> readAll(ProductImportFormat.CSV, csv));
+        assertTrue(exception.getMessage().contains("linha 2"));
+    }
+
+    @Test
+    void shouldRejectNdjsonLineLongerThanTheLimit() {
+        var ndjson = "{\"name\":\"" + "x".repeat(ProductRowReader.MAX_RECORD_LENGTH) + "\"}\n";
+
+        assertThrows(BusinessException.class, () -> readAll(ProductImportFormat.NDJSON, ndjson));
+    }
+
+    @Test
+    void shouldReadNdjsonRowsAndReportInvalidJson() throws IOException {
+        var ndjson = "{\"name\":\"Monitor\",\"price\":1199.99,\"status\":true,\"code\":8,\"categoryId\":2}\n"
+            + "\n"
+            + "{\"name\": \n";
+
+        var rows = readAll(ProductImportFormat.NDJSON, ndjson);
+
+        assertEquals(ImportRow.of(1, new CreateProductV2DTO("Monitor", null, new BigDecimal("1199.99"), true, 8, 2L)),
+            rows.get(0));
+        assertEquals(3, rows.get(1).line());
+        assertNull(rows.get(1).product());
+        assertTrue(rows.get(1).errors().get(0).startsWith("JSON inválido"));
+    }
+
+    private List<ImportRow> readAll(ProductImportFormat format, String content) throws IOException {
+        var rows = new ArrayList<ImportRow>();
+        try (var reader = ProductRowReader.of(format,
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), objectMapper)) {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
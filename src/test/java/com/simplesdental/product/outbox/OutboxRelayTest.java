@@ -0,0 +1,118 @@
+package com.simplesdental.product.outbox;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.product.cache.TwoLevelCache;
+import com.simplesdental.product.config.CacheNames;
+import com.simplesdental.product.events.CatalogEvent;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final String CHANNEL = "catalog-events";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private RedisTemplate<String, CatalogEvent> catalogEventTemplate;
+
+    @Mock
+    private TwoLevelCache productsCache;
+
+    @Mock
+    private TwoLevelCache userStateCache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(jdbcTemplate, transactionTemplate, cacheManager, catalogEventTemplate,
+            objectMapper, CHANNEL, 10);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(cacheManager.getCache(CacheNames.PRODUCTS))
+            .thenReturn(new TransactionAwareCacheDecorator(productsCache));
+        lenient().when(cacheManager.getCache(CacheNames.USER_STATE)).thenReturn(userStateCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldEvictKeysPerCachePublishEventsAndDeleteRelayedRows() throws Exception {
+        var event = new CatalogEvent("e1", CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.UPDATED, List.of(1L));
+        claim(List.of(
+            evict(1, CacheNames.PRODUCTS, "1"),
+            evict(2, CacheNames.USER_STATE, "ana@x.com"),
+            new OutboxMessage(3, OutboxMessage.Kind.EVENT, null, null, objectMapper.writeValueAsString(event)),
+            evict(4, CacheNames.PRODUCTS, "2")));
+
+        outboxRelay.relay();
+
+        var inOrder = inOrder(productsCache, catalogEventTemplate, jdbcTemplate);
+        inOrder.verify(productsCache).evictAll(Set.of("1", "2"));
+        inOrder.verify(catalogEventTemplate).convertAndSend(CHANNEL, event);
+        inOrder.verify(jdbcTemplate).update(any(PreparedStatementCreator.class));
+        verify(userStateCache).evictAll(Set.of("ana@x.com"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldClearCacheInsteadOfEvictingItsKeys() {
+        claim(List.of(
+            evict(1, CacheNames.PRODUCTS, "1"),
+            new OutboxMessage(2, OutboxMessage.Kind.CLEAR, CacheNames.PRODUCTS, null, null)));
+
+        outboxRelay.relay();
+
+        verify(productsCache).clear();
+        verify(productsCache, never()).evictAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepRowsForNextRunWhenRedisFails() {
+        claim(List.of(evict(1, CacheNames.PRODUCTS, "1")));
+        doThrow(new RedisConnectionFailureException("Connection refused")).when(productsCache).evictAll(any());
+
+        outboxRelay.relay();
+
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claim(List<OutboxMessage> messages) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(10))).thenReturn(messages);
+    }
+
+    private static OutboxMessage evict(long id, String cacheName, String key) {
+        return new OutboxMessage(id, OutboxMessage.Kind.EVICT, cacheName, key, null);
+    }
+}
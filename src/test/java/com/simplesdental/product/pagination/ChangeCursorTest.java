@@ -0,0 +1,23 @@
+package com.simplesdental.product.pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.simplesdental.product.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+class ChangeCursorTest {
+
+    @Test
+    void shouldRoundTripTransactionAndSequence() {
+        ChangeCursor cursor = new ChangeCursor(4_294_967_296L + 754, 21L);
+
+        assertEquals(cursor, ChangeCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenChangeCursorIsMalformed() {
+        assertThrows(BusinessException.class, () -> ChangeCursor.decode("not-a-cursor"));
+        assertThrows(BusinessException.class, () -> ChangeCursor.decode("NzU0fHg"));
+        assertThrows(BusinessException.class, () -> ChangeCursor.decode(new ChangeCursor(-1, 5).encode()));
+    }
+}
@@ -0,0 +1,28 @@
+package com.simplesdental.product.pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.simplesdental.product.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+class ProductCursorTest {
+
+    @Test
+    void shouldRoundTripCursorWhenKeyContainsSeparator() {
+        ProductCursor cursor = new ProductCursor(ProductSortKey.NAME, "Monitor | 27\"", 8L);
+
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenCursorIsMalformed() {
+        assertThrows(BusinessException.class, () -> ProductCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenSortKeyIsUnknown() {
+        assertThrows(BusinessException.class, () -> ProductSortKey.fromParameter("code"));
+    }
+}
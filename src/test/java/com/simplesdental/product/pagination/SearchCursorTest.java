@@ -0,0 +1,26 @@
+package com.simplesdental.product.pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.simplesdental.product.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+class SearchCursorTest {
+
+    @Test
+    void shouldRoundTripExactScore() {
+        SearchCursor cursor = new SearchCursor(0.6079271f, 42L);
+
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(Float.floatToIntBits(0.6079271f), Float.floatToIntBits(decoded.score()));
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenSearchCursorIsMalformed() {
+        assertThrows(BusinessException.class, () -> SearchCursor.decode("not-a-cursor"));
+        assertThrows(BusinessException.class,
+            () -> SearchCursor.decode(new ProductCursor(ProductSortKey.NAME, "Mesa", 1L).encode()));
+    }
+}
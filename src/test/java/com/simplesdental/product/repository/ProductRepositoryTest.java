@@ -0,0 +1,84 @@
+package com.simplesdental.product.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.simplesdental.product.model.Product;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.Optional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldLoadPageWithCategoriesUsingOnlySelectAndCountStatements() {
+        Page<Product> products = productRepository.findAll(PageRequest.of(0, 5));
+        products.forEach(product -> assertNotNull(product.getCategory().getName()));
+
+        assertEquals(5, products.getNumberOfElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldLoadProductWithCategoryUsingSingleStatement() {
+        Optional<Product> product = productRepository.findById(1L);
+
+        assertTrue(product.isPresent());
+        assertNotNull(product.get().getCategory().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldFilterByCategoryStatusPriceAndNamePrefixInTheDatabase() {
+        var filter = new ProductFilter(5L, true, new BigDecimal("400"), new BigDecimal("900"), "MESA");
+
+        Page<ProductSummary> products = productRepository.findSummaries(filter, PageRequest.of(0, 5));
+
+        assertEquals(1, products.getTotalElements());
+        assertEquals("Mesa de Escritório", products.getContent().get(0).name());
+        assertEquals("Móveis", products.getContent().get(0).category().name());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
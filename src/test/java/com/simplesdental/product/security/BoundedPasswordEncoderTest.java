@@ -0,0 +1,82 @@
+package com.simplesdental.product.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.simplesdental.product.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    void shouldDelegateAndRecordHashingTime() {
+        passwordEncoder = new BoundedPasswordEncoder(new PrefixEncoder(null), 2, 2, meterRegistry);
+
+        String encoded = passwordEncoder.encode("secret");
+
+        assertEquals("hashed:secret", encoded);
+        assertTrue(passwordEncoder.matches("secret", encoded));
+        assertFalse(passwordEncoder.matches("other", encoded));
+        assertEquals(1, meterRegistry.get("auth.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void shouldRejectRightAwayWhenPoolAndQueueAreFull() throws Exception {
+        var release = new CountDownLatch(1);
+        passwordEncoder = new BoundedPasswordEncoder(new PrefixEncoder(release), 1, 1, meterRegistry);
+
+        var running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+        var queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("second"));
+        awaitQueued(1);
+
+        assertThrows(ServiceUnavailableException.class, () -> passwordEncoder.encode("third"));
+
+        release.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            if (meterRegistry.get("executor.queued").tag("name", "passwordHashing").gauge().value() >= expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Task was not queued");
+    }
+
+    private record PrefixEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
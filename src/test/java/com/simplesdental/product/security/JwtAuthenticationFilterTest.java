@@ -1,20 +1,28 @@
 package com.simplesdental.product.security;
 
+import com.simplesdental.product.model.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.ServletException;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -29,6 +37,12 @@ class JwtAuthenticationFilterTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Mock
+    private UserStateService userStateService;
+
+    @Spy
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+
     @InjectMocks
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -50,15 +64,13 @@ class JwtAuthenticationFilterTest {
         request.addHeader("Authorization", "Bearer " + token);
         
         UserDetails userDetails = mock(UserDetails.class);
-        when(jwtTokenProvider.validateToken(token)).thenReturn(true);
-        when(jwtTokenProvider.getUsernameFromToken(token)).thenReturn("test@example.com");
+        when(jwtTokenProvider.parseAndValidate(token)).thenReturn(Optional.of(userClaims()));
         when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(userDetails);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
-        verify(jwtTokenProvider).validateToken(token);
-        verify(jwtTokenProvider).getUsernameFromToken(token);
+        verify(jwtTokenProvider).parseAndValidate(token);
         verify(userDetailsService).loadUserByUsername("test@example.com");
     }
 
@@ -66,13 +78,12 @@ class JwtAuthenticationFilterTest {
     void shouldNotSetAuthenticationWhenInvalidTokenIsProvided() throws ServletException, IOException {
         String token = "invalid.jwt.token";
         request.addHeader("Authorization", "Bearer " + token);
-        when(jwtTokenProvider.validateToken(token)).thenReturn(false);
+        when(jwtTokenProvider.parseAndValidate(token)).thenReturn(Optional.empty());
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
-        verify(jwtTokenProvider).validateToken(token);
-        verify(jwtTokenProvider, never()).getUsernameFromToken(anyString());
+        verify(jwtTokenProvider).parseAndValidate(token);
         verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
@@ -81,8 +92,7 @@ class JwtAuthenticationFilterTest {
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
-        verify(jwtTokenProvider, never()).validateToken(anyString());
-        verify(jwtTokenProvider, never()).getUsernameFromToken(anyString());
+        verify(jwtTokenProvider, never()).parseAndValidate(anyString());
         verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
@@ -93,8 +103,119 @@ class JwtAuthenticationFilterTest {
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
-        verify(jwtTokenProvider, never()).validateToken(anyString());
-        verify(jwtTokenProvider, never()).getUsernameFromToken(anyString());
+        verify(jwtTokenProvider, never()).parseAndValidate(anyString());
         verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
-} 
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUserWhenStatelessAuthIsEnabled() throws ServletException, IOException {
+        String token = "valid.jwt.token";
+        request.addHeader("Authorization", "Bearer " + token);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessAuth", true);
+
+        when(jwtTokenProvider.parseAndValidate(token)).thenReturn(Optional.of(userClaims()));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("test@example.com", authentication.getName());
+        verifyNoInteractions(userDetailsService, userStateService);
+    }
+
+    @Test
+    void shouldFallBackToLoadingUserWhenTokenHasNoUserClaims() throws ServletException, IOException {
+        String token = "legacy.jwt.token";
+        request.addHeader("Authorization", "Bearer " + token);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessAuth", true);
+
+        when(jwtTokenProvider.parseAndValidate(token)).thenReturn(Optional.of(new TokenClaims(
+            "test@example.com", null, null, null, List.of(new SimpleGrantedAuthority("ROLE_USER")), null)));
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(mock(UserDetails.class));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService).loadUserByUsername("test@example.com");
+    }
+
+    @Test
+    void shouldAuthenticateWhenUserStateStillMatchesToken() throws ServletException, IOException {
+        String token = "valid.jwt.token";
+        request.addHeader("Authorization", "Bearer " + token);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessAuth", true);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "revocationCheck", true);
+
+        when(jwtTokenProvider.parseAndValidate(token)).thenReturn(Optional.of(userClaims()));
+        when(userStateService.getUserState("test@example.com")).thenReturn(new UserState(1L, UserRole.USER, "cafebabe"));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldNotSetAuthenticationWhenPasswordChangedAfterTokenWasIssued() throws ServletException, IOException {
+        String token = "revoked.jwt.token";
+        request.addHeader("Authorization", "Bearer " + token);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessAuth", true);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "revocationCheck", true);
+
+        when(jwtTokenProvider.parseAndValidate(token)).thenReturn(Optional.of(userClaims()));
+        when(userStateService.getUserState("test@example.com")).thenReturn(new UserState(1L, UserRole.USER, "deadbeef"));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldNotSetAuthenticationWhenUserNoLongerExists() throws ServletException, IOException {
+        String token = "revoked.jwt.token";
+        request.addHeader("Authorization", "Bearer " + token);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessAuth", true);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "revocationCheck", true);
+
+        when(jwtTokenProvider.parseAndValidate(token)).thenReturn(Optional.of(userClaims()));
+        when(userStateService.getUserState("test@example.com")).thenReturn(null);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private TokenClaims userClaims() {
+        return new TokenClaims("test@example.com", 1L, UserRole.USER, "cafebabe",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")), Instant.now().plusSeconds(60));
+    }
+
+    @Test
+    void shouldVerifyRepeatedTokenOnlyOnce() throws ServletException, IOException {
+        String token = "valid.jwt.token";
+        request.addHeader("Authorization", "Bearer " + token);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessAuth", true);
+        when(jwtTokenProvider.parseAndValidate(token)).thenReturn(Optional.of(userClaims()));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtAuthenticationFilter.doFilterInternal(request, response, new MockFilterChain());
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtTokenProvider, times(1)).parseAndValidate(token);
+    }
+
+    @Test
+    void shouldVerifyInvalidTokenOnEveryRequest() throws ServletException, IOException {
+        String token = "invalid.jwt.token";
+        request.addHeader("Authorization", "Bearer " + token);
+        when(jwtTokenProvider.parseAndValidate(token)).thenReturn(Optional.empty());
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        jwtAuthenticationFilter.doFilterInternal(request, response, new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtTokenProvider, times(2)).parseAndValidate(token);
+    }
+}
@@ -4,16 +4,21 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.simplesdental.product.model.User;
+import com.simplesdental.product.model.UserRole;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,17 +31,9 @@ class JwtTokenProviderTest {
     private static final long JWT_EXPIRATION = 86400000;
 
     @BeforeEach
-    void setUp() throws Exception {
+    void setUp() {
         key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-        jwtTokenProvider = new JwtTokenProvider();
-        
-        var jwtSecretField = JwtTokenProvider.class.getDeclaredField("jwtSecret");
-        jwtSecretField.setAccessible(true);
-        jwtSecretField.set(jwtTokenProvider, SECRET_KEY);
-        
-        var jwtExpirationField = JwtTokenProvider.class.getDeclaredField("jwtExpirationInMs");
-        jwtExpirationField.setAccessible(true);
-        jwtExpirationField.set(jwtTokenProvider, JWT_EXPIRATION);
+        jwtTokenProvider = new JwtTokenProvider(SECRET_KEY, JWT_EXPIRATION);
     }
 
     @Test
@@ -72,25 +69,108 @@ class JwtTokenProviderTest {
             .signWith(key, SignatureAlgorithm.HS256)
             .compact();
 
-        String username = jwtTokenProvider.getUsernameFromToken(token);
+        String username = jwtTokenProvider.parseAndValidate(token).orElseThrow().subject();
 
         assertEquals("test@example.com", username);
     }
 
     @Test
-    void shouldReturnTrueWhenValidatingValidJwtToken() {
+    void shouldReturnClaimsWhenValidatingValidJwtToken() {
+        String token = Jwts.builder()
+            .setSubject("test@example.com")
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
+            .signWith(key, SignatureAlgorithm.HS256)
+            .compact();
+
+        assertTrue(jwtTokenProvider.parseAndValidate(token).isPresent());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenParsingMalformedJwtToken() {
+        assertTrue(jwtTokenProvider.parseAndValidate("invalid.token.here").isEmpty());
+    }
+
+    @Test
+    void shouldEmbedUserClaimsWhenPrincipalIsAUser() {
+        User user = User.builder()
+            .id(7L)
+            .email("test@example.com")
+            .password("encodedPassword")
+            .role(UserRole.ADMIN)
+            .build();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+
+        String token = jwtTokenProvider.generateToken(authentication);
+
+        Claims claims = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+
+        assertEquals(7, claims.get("uid", Integer.class));
+        assertEquals("ADMIN", claims.get("role", String.class));
+        assertEquals("ROLE_ADMIN", claims.get("authorities", String.class));
+        assertEquals(UserState.credentialVersionOf("encodedPassword"), claims.get("cv", String.class));
+    }
+
+    @Test
+    void shouldBuildPrincipalFromClaimsWhenGettingAuthentication() {
+        User user = User.builder()
+            .id(7L)
+            .email("test@example.com")
+            .password("encodedPassword")
+            .role(UserRole.ADMIN)
+            .build();
+        String token = jwtTokenProvider.generateToken(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        Authentication authentication = jwtTokenProvider.parseAndValidate(token).orElseThrow().toAuthentication();
+
+        assertEquals("test@example.com", authentication.getName());
+        assertEquals(new JwtPrincipal("test@example.com", 7L, UserRole.ADMIN,
+            UserState.credentialVersionOf("encodedPassword")), authentication.getPrincipal());
+        assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        assertTrue(UserState.fromUser(user).isSatisfiedBy((JwtPrincipal) authentication.getPrincipal()));
+    }
+
+    @Test
+    void shouldReportMissingUserClaimsWhenTokenHasNone() {
         String token = Jwts.builder()
             .setSubject("test@example.com")
+            .claim("authorities", "ROLE_USER")
             .setIssuedAt(new Date())
             .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
             .signWith(key, SignatureAlgorithm.HS256)
             .compact();
 
-        assertTrue(jwtTokenProvider.validateToken(token));
+        assertFalse(jwtTokenProvider.parseAndValidate(token).orElseThrow().hasUserClaims());
     }
 
     @Test
-    void shouldReturnFalseWhenValidatingExpiredJwtToken() {
+    void shouldReturnClaimsWhenParsingValidJwtToken() {
+        User user = User.builder()
+            .id(7L)
+            .email("test@example.com")
+            .password("encodedPassword")
+            .role(UserRole.USER)
+            .build();
+        String token = jwtTokenProvider.generateToken(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        TokenClaims claims = jwtTokenProvider.parseAndValidate(token).orElseThrow();
+
+        assertEquals("test@example.com", claims.subject());
+        assertEquals(7L, claims.userId());
+        assertEquals(UserRole.USER, claims.role());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), claims.authorities());
+        assertTrue(claims.expiresAt().isAfter(Instant.now()));
+        assertTrue(claims.hasUserClaims());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenParsingExpiredJwtToken() {
         String token = Jwts.builder()
             .setSubject("test@example.com")
             .setIssuedAt(new Date(System.currentTimeMillis() - JWT_EXPIRATION - 1000))
@@ -98,11 +178,17 @@ class JwtTokenProviderTest {
             .signWith(key, SignatureAlgorithm.HS256)
             .compact();
 
-        assertFalse(jwtTokenProvider.validateToken(token));
+        assertTrue(jwtTokenProvider.parseAndValidate(token).isEmpty());
     }
 
     @Test
-    void shouldReturnFalseWhenValidatingInvalidJwtToken() {
-        assertFalse(jwtTokenProvider.validateToken("invalid.token.here"));
+    void shouldReturnEmptyWhenParsingTokenSignedWithAnotherKey() {
+        String token = Jwts.builder()
+            .setSubject("test@example.com")
+            .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
+            .signWith(Keys.hmacShaKeyFor("another-secret-key-that-is-at-least-32-bytes".getBytes()), SignatureAlgorithm.HS256)
+            .compact();
+
+        assertTrue(jwtTokenProvider.parseAndValidate(token).isEmpty());
     }
-} 
+}
@@ -0,0 +1,70 @@
+package com.simplesdental.product.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.simplesdental.product.model.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache verifiedTokenCache;
+    private AtomicInteger verifications;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(100, meterRegistry);
+        verifications = new AtomicInteger();
+    }
+
+    @Test
+    void shouldReturnCachedClaimsForRepeatedToken() {
+        var claims = claimsExpiringAt(Instant.now().plusSeconds(60));
+
+        var first = verifiedTokenCache.getOrVerify("token", token -> verify(claims));
+        var second = verifiedTokenCache.getOrVerify("token", token -> verify(claims));
+
+        assertEquals(Optional.of(claims), first);
+        assertEquals(Optional.of(claims), second);
+        assertEquals(1, verifications.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "verifiedTokens").tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "verifiedTokens").tag("result", "miss")
+            .functionCounter().count());
+    }
+
+    @Test
+    void shouldNotCacheInvalidToken() {
+        verifiedTokenCache.getOrVerify("token", token -> verify(null));
+        var result = verifiedTokenCache.getOrVerify("token", token -> verify(null));
+
+        assertTrue(result.isEmpty());
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void shouldNotKeepClaimsOfExpiredToken() {
+        var claims = claimsExpiringAt(Instant.now().minusSeconds(1));
+
+        verifiedTokenCache.getOrVerify("token", token -> verify(claims));
+        verifiedTokenCache.getOrVerify("token", token -> verify(claims));
+
+        assertEquals(2, verifications.get());
+    }
+
+    private Optional<TokenClaims> verify(TokenClaims claims) {
+        verifications.incrementAndGet();
+        return Optional.ofNullable(claims);
+    }
+
+    private TokenClaims claimsExpiringAt(Instant expiresAt) {
+        return new TokenClaims("test@example.com", 1L, UserRole.USER, "cafebabe", List.of(), expiresAt);
+    }
+}
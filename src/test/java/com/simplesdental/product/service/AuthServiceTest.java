@@ -1,15 +1,20 @@
 package com.simplesdental.product.service;
 
+import com.simplesdental.product.config.CacheNames;
 import com.simplesdental.product.controller.dto.auth.AuthRequest;
 import com.simplesdental.product.controller.dto.auth.AuthResponse;
 import com.simplesdental.product.controller.dto.auth.UserContextDTO;
 import com.simplesdental.product.controller.dto.auth.UserRequest;
 import com.simplesdental.product.exception.BusinessException;
 import com.simplesdental.product.exception.ResourceNotFoundException;
+import com.simplesdental.product.exception.ServiceUnavailableException;
 import com.simplesdental.product.model.User;
 import com.simplesdental.product.model.UserRole;
+import com.simplesdental.product.outbox.OutboxWriter;
 import com.simplesdental.product.repository.UserRepository;
 import com.simplesdental.product.security.JwtTokenProvider;
+import com.simplesdental.product.security.UserState;
+import com.simplesdental.product.security.UserStateService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,8 +26,12 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,6 +52,15 @@ class AuthServiceTest {
     @Mock
     private JwtTokenProvider jwtUtils;
 
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private UserStateService userStateService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private AuthService authService;
 
@@ -62,6 +80,13 @@ class AuthServiceTest {
 
         authRequest = new AuthRequest("test@example.com", "password");
         userRequest = new UserRequest("Test User", "test@example.com", "password");
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 
     @Test
@@ -92,6 +117,24 @@ class AuthServiceTest {
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
     }
 
+    @Test
+    void shouldPropagateServiceUnavailableWhenPasswordHashingIsSaturated() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+            .thenThrow(new ServiceUnavailableException("Too many authentication requests, please try again shortly"));
+
+        assertThrows(ServiceUnavailableException.class, () -> authService.login(authRequest));
+    }
+
+    @Test
+    void shouldPropagateServiceUnavailableWhenRegisteringDuringSaturation() {
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(passwordEncoder.encode(anyString()))
+            .thenThrow(new ServiceUnavailableException("Too many authentication requests, please try again shortly"));
+
+        assertThrows(ServiceUnavailableException.class, () -> authService.register(userRequest));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void shouldCreateUserSuccessfullyWhenValidDataIsProvided() {
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
@@ -107,6 +150,22 @@ class AuthServiceTest {
         verify(userRepository).existsByEmail("test@example.com");
         verify(passwordEncoder).encode("password");
         verify(userRepository).save(any(User.class));
+        verify(outboxWriter).evict(CacheNames.USER_CONTEXT, "test@example.com");
+        verify(outboxWriter).evict(CacheNames.USER_STATE, "test@example.com");
+    }
+
+    @Test
+    void shouldHashPasswordBeforeOpeningTheRegistrationTransaction() {
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        authService.register(userRequest);
+
+        var inOrder = inOrder(passwordEncoder, transactionTemplate, userRepository);
+        inOrder.verify(passwordEncoder).encode("password");
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(userRepository).save(any(User.class));
     }
 
     @Test
@@ -120,6 +179,7 @@ class AuthServiceTest {
 
     @Test
     void shouldReturnUserContextWhenValidEmailIsProvided() {
+        when(userStateService.getUserState("test@example.com")).thenReturn(UserState.fromUser(user));
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
 
         UserContextDTO context = authService.getUserContext("test@example.com");
@@ -132,12 +192,21 @@ class AuthServiceTest {
 
     @Test
     void shouldThrowResourceNotFoundExceptionWhenUserNotFound() {
+        when(userStateService.getUserState("test@example.com")).thenReturn(UserState.fromUser(user));
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> authService.getUserContext("test@example.com"));
         verify(userRepository).findByEmail("test@example.com");
     }
 
+    @Test
+    void shouldNotQueryUserWhenUserStateIsMissing() {
+        when(userStateService.getUserState("ghost@example.com")).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> authService.getUserContext("ghost@example.com"));
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
     @Test
     void shouldUpdatePasswordSuccessfullyWhenValidDataIsProvided() {
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
@@ -149,6 +218,8 @@ class AuthServiceTest {
         verify(userRepository).findByEmail("test@example.com");
         verify(passwordEncoder).encode("newPassword");
         verify(userRepository).save(any(User.class));
+        verify(outboxWriter).evict(CacheNames.USER_CONTEXT, "test@example.com");
+        verify(outboxWriter).evict(CacheNames.USER_STATE, "test@example.com");
     }
 
     @Test
@@ -159,5 +230,6 @@ class AuthServiceTest {
             authService.updatePassword("test@example.com", "newPassword"));
         verify(userRepository).findByEmail("test@example.com");
         verify(userRepository, never()).save(any(User.class));
+        verify(outboxWriter, never()).evict(anyString(), any());
     }
-} 
+}
@@ -4,10 +4,15 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.simplesdental.product.cache.ProductCacheEvictor;
+import com.simplesdental.product.cache.ProductCacheKey;
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.events.CatalogEventPublisher;
 import com.simplesdental.product.exception.BusinessException;
 import com.simplesdental.product.exception.ResourceNotFoundException;
 import com.simplesdental.product.model.Category;
 import com.simplesdental.product.repository.CategoryRepository;
+import com.simplesdental.product.repository.ProductRepository;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +25,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryServiceTest {
@@ -27,6 +34,15 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCacheEvictor productCacheEvictor;
+
+    @Mock
+    private CatalogEventPublisher catalogEventPublisher;
+
     private CategoryService categoryService;
 
     private Category category;
@@ -34,7 +50,8 @@ class CategoryServiceTest {
 
     @BeforeEach
     void setUp() {
-        categoryService = new CategoryService(categoryRepository);
+        categoryService = new CategoryService(categoryRepository, productRepository, productCacheEvictor,
+            catalogEventPublisher);
         category = Category.builder()
             .id(1L)
             .name("Test Category")
@@ -123,6 +140,7 @@ class CategoryServiceTest {
 
         verify(categoryRepository).existsById(1L);
         verify(categoryRepository).deleteById(1L);
+        verify(catalogEventPublisher).publish(CatalogEvent.Entity.CATEGORY, CatalogEvent.Type.DELETED, 1L);
     }
 
     @Test
@@ -143,4 +161,62 @@ class CategoryServiceTest {
         verify(categoryRepository).existsById(1L);
         verify(categoryRepository).deleteById(1L);
     }
-} 
+
+    @Test
+    void shouldReturnSliceOfCategoriesWhenRequestingSlice() {
+        Slice<Category> slice = new SliceImpl<>(List.of(category), pageable, false);
+        when(categoryRepository.findAllBy(any(Pageable.class))).thenReturn(slice);
+
+        Slice<Category> result = categoryService.findAllSlice(pageable);
+
+        assertFalse(result.hasNext());
+        assertEquals(category, result.getContent().get(0));
+        verify(categoryRepository).findAllBy(pageable);
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenErrorOccursWhileFetchingCategoriesSlice() {
+        when(categoryRepository.findAllBy(any(Pageable.class)))
+            .thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(BusinessException.class, () -> categoryService.findAllSlice(pageable));
+    }
+
+    @Test
+    void shouldReturnEstimatedCountWhenStatisticsAreAvailable() {
+        when(categoryRepository.estimateCount()).thenReturn(5L);
+
+        assertEquals(5L, categoryService.estimateCount());
+    }
+
+    @Test
+    void shouldPublishCreatedEventWhenSavingNewCategory() {
+        var newCategory = Category.builder().name("Test Category").build();
+        when(categoryRepository.save(newCategory)).thenReturn(category);
+
+        categoryService.save(newCategory);
+
+        verify(catalogEventPublisher).publish(CatalogEvent.Entity.CATEGORY, CatalogEvent.Type.CREATED, 1L);
+    }
+
+    @Test
+    void shouldEvictProductsOfCategoryWhenUpdatingIt() {
+        var keys = List.of(new ProductCacheKey(7L, 70), new ProductCacheKey(8L, null));
+        when(categoryRepository.save(category)).thenReturn(category);
+        when(productRepository.findCacheKeysByCategoryId(1L)).thenReturn(keys);
+
+        categoryService.save(category);
+
+        verify(productCacheEvictor).evictAll(keys);
+    }
+
+    @Test
+    void shouldNotEvictProductsWhenCreatingCategory() {
+        var newCategory = Category.builder().name("Test Category").build();
+        when(categoryRepository.save(newCategory)).thenReturn(category);
+
+        categoryService.save(newCategory);
+
+        verifyNoInteractions(productRepository, productCacheEvictor);
+    }
+}
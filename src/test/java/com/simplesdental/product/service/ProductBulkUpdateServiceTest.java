@@ -0,0 +1,109 @@
+package com.simplesdental.product.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.simplesdental.product.cache.ProductCacheEvictor;
+import com.simplesdental.product.cache.ProductCacheKey;
+import com.simplesdental.product.controller.dto.product.v2.AdjustCategoryPriceDTO;
+import com.simplesdental.product.controller.dto.product.v2.BulkUpdateProductsResponse;
+import com.simplesdental.product.controller.dto.product.v2.PatchProductV2DTO;
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.events.CatalogEventPublisher;
+import com.simplesdental.product.exception.ResourceNotFoundException;
+import com.simplesdental.product.exception.ValidationException;
+import com.simplesdental.product.repository.CategoryRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkUpdateServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private ProductCacheEvictor productCacheEvictor;
+
+    @Mock
+    private CatalogEventPublisher catalogEventPublisher;
+
+    @InjectMocks
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPatchInOneStatementAndEvictOnlyUpdatedProducts() {
+        var updated = List.of(new ProductCacheKey(1L, 101), new ProductCacheKey(3L, 103));
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(updated);
+
+        var response = productBulkUpdateService.patch(List.of(
+            new PatchProductV2DTO(1L, new BigDecimal("10.00"), null),
+            new PatchProductV2DTO(2L, null, false),
+            new PatchProductV2DTO(3L, new BigDecimal("30.00"), true)));
+
+        assertEquals(new BulkUpdateProductsResponse(2, List.of(2L)), response);
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowMapper.class));
+        verify(productCacheEvictor).evictAll(updated);
+        verify(catalogEventPublisher).publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.UPDATED, List.of(1L, 3L));
+    }
+
+    @Test
+    void shouldRejectWholePatchWhenAnyItemIsInvalid() {
+        var items = List.of(
+            new PatchProductV2DTO(1L, new BigDecimal("-1"), null),
+            new PatchProductV2DTO(2L, null, null),
+            new PatchProductV2DTO(1L, null, true));
+
+        var exception = assertThrows(ValidationException.class, () -> productBulkUpdateService.patch(items));
+
+        assertEquals("Item 0: O preço do produto deve ser maior que zero. "
+            + "Item 1: Informe o preço ou o status a alterar. "
+            + "Item 2: O produto 1 aparece mais de uma vez.", exception.getMessage());
+        verifyNoInteractions(jdbcTemplate, productCacheEvictor, catalogEventPublisher);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAdjustCategoryPricesAndEvictAffectedProducts() {
+        var input = new AdjustCategoryPriceDTO(new BigDecimal("10"));
+        when(categoryRepository.existsById(5L)).thenReturn(true);
+        when(jdbcTemplate.query(any(String.class), any(RowMapper.class), eq(input.percentage()), eq(5L)))
+            .thenReturn(List.of(new ProductCacheKey(7L, 107), new ProductCacheKey(8L, 108)));
+
+        var response = productBulkUpdateService.adjustCategoryPrices(5L, input);
+
+        assertEquals(new BulkUpdateProductsResponse(2, List.of()), response);
+        verify(productCacheEvictor).evictAll(List.of(new ProductCacheKey(7L, 107), new ProductCacheKey(8L, 108)));
+    }
+
+    @Test
+    void shouldThrowResourceNotFoundWhenAdjustingPricesOfUnknownCategory() {
+        when(categoryRepository.existsById(5L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+            () -> productBulkUpdateService.adjustCategoryPrices(5L, new AdjustCategoryPriceDTO(BigDecimal.TEN)));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+
+}
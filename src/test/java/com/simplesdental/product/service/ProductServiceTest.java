@@ -2,32 +2,61 @@ package com.simplesdental.product.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
+import com.simplesdental.product.cache.ProductBatchCache;
+import com.simplesdental.product.cache.ProductCacheEvictor;
+import com.simplesdental.product.cache.ProductCacheKey;
+import com.simplesdental.product.cache.ProductIdFilter;
 import com.simplesdental.product.controller.dto.product.v1.CreateProductDTO;
 import com.simplesdental.product.controller.dto.product.v1.UpdateProductDTO;
+import com.simplesdental.product.controller.dto.product.v2.BatchProductResult;
 import com.simplesdental.product.controller.dto.product.v2.CreateProductV2DTO;
 import com.simplesdental.product.controller.dto.product.v2.UpdateProductV2DTO;
+import com.simplesdental.product.events.CatalogEvent;
+import com.simplesdental.product.events.CatalogEventPublisher;
 import com.simplesdental.product.exception.BusinessException;
+import com.simplesdental.product.exception.PreconditionFailedException;
 import com.simplesdental.product.exception.ResourceNotFoundException;
 import com.simplesdental.product.model.Category;
 import com.simplesdental.product.model.Product;
+import com.simplesdental.product.pagination.ChangeCursor;
+import com.simplesdental.product.pagination.CursorPage;
+import com.simplesdental.product.pagination.ProductCursor;
+import com.simplesdental.product.pagination.ProductSortKey;
+import com.simplesdental.product.pagination.SearchCursor;
 import com.simplesdental.product.repository.CategoryRepository;
+import com.simplesdental.product.repository.ProductChangeRepository;
+import com.simplesdental.product.repository.ProductFilter;
 import com.simplesdental.product.repository.ProductRepository;
+import com.simplesdental.product.repository.ProductSearchRepository;
+import com.simplesdental.product.repository.projection.ProductChange;
+import com.simplesdental.product.repository.projection.ProductSearchHit;
+import com.simplesdental.product.repository.projection.ProductSummary;
+import com.simplesdental.product.suggest.ProductSuggestionIndex;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -38,10 +67,35 @@ class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductSearchRepository productSearchRepository;
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @Mock
+    private ProductCacheEvictor productCacheEvictor;
+
+    @Mock
+    private ProductIdFilter productIdFilter;
+
+    @Mock
+    private ProductBatchCache productBatchCache;
+
+    @Mock
+    private CatalogEventPublisher catalogEventPublisher;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private ProductService productService;
 
     private Product product;
+    private ProductSummary summary;
     private Category category;
     private Pageable pageable;
 
@@ -60,30 +114,69 @@ class ProductServiceTest {
         product.setCode(1);
         product.setCategory(category);
 
+        summary = new ProductSummary(1L, "Test Product", "Test Description", new BigDecimal("100.00"), true, 1,
+            1L, "Test Category", null);
+
         pageable = PageRequest.of(0, 10);
+        lenient().when(productIdFilter.mightContain(anyLong())).thenReturn(true);
     }
 
     @Test
     void shouldReturnPageOfProductsWhenRequestingAllProducts() {
-        List<Product> products = Collections.singletonList(product);
-        Page<Product> productPage = new PageImpl<>(products, pageable, products.size());
-        when(productRepository.findAll(any(Pageable.class))).thenReturn(productPage);
+        List<ProductSummary> products = Collections.singletonList(summary);
+        Page<ProductSummary> productPage = new PageImpl<>(products, pageable, products.size());
+        when(productRepository.findAllSummaries(any(Pageable.class))).thenReturn(productPage);
 
-        Page<Product> result = productService.findAll(pageable);
+        Page<ProductSummary> result = productService.findAll(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        assertEquals(product, result.getContent().get(0));
-        verify(productRepository).findAll(pageable);
+        assertEquals(summary, result.getContent().get(0));
+        verify(productRepository).findAllSummaries(pageable);
     }
 
     @Test
     void shouldThrowBusinessExceptionWhenErrorOccursWhileFetchingProducts() {
-        when(productRepository.findAll(any(Pageable.class)))
+        when(productRepository.findAllSummaries(any(Pageable.class)))
             .thenThrow(new BusinessException("Database error"));
 
         assertThrows(BusinessException.class, () -> productService.findAll(pageable));
-        verify(productRepository).findAll(pageable);
+        verify(productRepository).findAllSummaries(pageable);
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenMoreProductsExistAfterKeysetPage() {
+        ProductSummary second = new ProductSummary(2L, "Second Product", null, BigDecimal.TEN, true, 2, 1L, "Test Category", null);
+        ProductSummary third = new ProductSummary(3L, "Third Product", null, BigDecimal.TEN, true, 3, 1L, "Test Category", null);
+        when(productRepository.findFirstOrderByName(any(Pageable.class))).thenReturn(List.of(summary, second, third));
+
+        CursorPage<ProductSummary> result = productService.findAllAfter(ProductSortKey.NAME, null, 2);
+
+        assertEquals(List.of(summary, second), result.content());
+        assertTrue(result.hasNext());
+        assertEquals(new ProductCursor(ProductSortKey.NAME, "Second Product", 2L), ProductCursor.decode(result.next()));
+        verify(productRepository).findFirstOrderByName(PageRequest.of(0, 3));
+    }
+
+    @Test
+    void shouldContinueAfterCursorWhenRequestingNextKeysetPage() {
+        String after = new ProductCursor(ProductSortKey.PRICE, "100.00", 1L).encode();
+        when(productRepository.findAfterOrderByPrice(any(BigDecimal.class), anyLong(), any(Pageable.class)))
+            .thenReturn(Collections.emptyList());
+
+        CursorPage<ProductSummary> result = productService.findAllAfter(ProductSortKey.PRICE, after, 2);
+
+        assertTrue(result.content().isEmpty());
+        assertFalse(result.hasNext());
+        verify(productRepository).findAfterOrderByPrice(new BigDecimal("100.00"), 1L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenCursorDoesNotMatchRequestedSort() {
+        String after = new ProductCursor(ProductSortKey.ID, "1", 1L).encode();
+
+        assertThrows(BusinessException.class, () -> productService.findAllAfter(ProductSortKey.NAME, after, 2));
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -97,6 +190,14 @@ class ProductServiceTest {
         verify(productRepository).findById(1L);
     }
 
+    @Test
+    void shouldNotQueryDatabaseForIdRuledOutByIdFilter() {
+        when(productIdFilter.mightContain(404L)).thenReturn(false);
+
+        assertTrue(productService.findById(404L).isEmpty());
+        verify(productRepository, never()).findById(any());
+    }
+
     @Test
     void shouldThrowBusinessExceptionWhenErrorOccursWhileFindingProductById() {
         when(productRepository.findById(anyLong()))
@@ -125,6 +226,8 @@ class ProductServiceTest {
         assertEquals(product, result);
         verify(categoryRepository).findById(1L);
         verify(productRepository).save(any(Product.class));
+        verify(productIdFilter).add(1L);
+        verify(productCacheEvictor).evict(1L, 1);
     }
 
     @Test
@@ -193,7 +296,7 @@ class ProductServiceTest {
         when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
-        UpdateProductV2DTO result = productService.update(1L, input);
+        UpdateProductV2DTO result = productService.update(1L, input, null);
 
         assertNotNull(result);
         assertEquals(input.name(), result.name());
@@ -203,6 +306,7 @@ class ProductServiceTest {
         assertEquals(input.code(), result.code());
         verify(productRepository).findById(1L);
         verify(productRepository).save(any(Product.class));
+        verify(catalogEventPublisher).publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.UPDATED, product.getId());
     }
 
     @Test
@@ -216,7 +320,7 @@ class ProductServiceTest {
             .build();
         when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> productService.update(1L, input));
+        assertThrows(ResourceNotFoundException.class, () -> productService.update(1L, input, null));
         verify(productRepository).findById(1L);
         verify(productRepository, never()).save(any(Product.class));
     }
@@ -264,4 +368,308 @@ class ProductServiceTest {
 
         assertThrows(RuntimeException.class, () -> productService.deleteById(1L));
     }
-} 
+
+    @Test
+    void shouldReturnSliceOfProductsWithoutCountingWhenRequestingSlice() {
+        Slice<ProductSummary> slice = new SliceImpl<>(List.of(summary), pageable, true);
+        when(productRepository.findSummarySlice(any(Pageable.class))).thenReturn(slice);
+
+        Slice<ProductSummary> result = productService.findAllSlice(pageable);
+
+        assertTrue(result.hasNext());
+        assertEquals(summary, result.getContent().get(0));
+        verify(productRepository).findSummarySlice(pageable);
+        verify(productRepository, never()).findAllSummaries(any(Pageable.class));
+    }
+
+    @Test
+    void shouldReturnNullEstimateWhenTableWasNeverAnalyzed() {
+        when(productRepository.estimateCount()).thenReturn(-1L);
+
+        assertNull(productService.estimateCount());
+    }
+
+    @Test
+    void shouldCreateValidItemsAndReportInvalidOnesWhenSavingBatch() {
+        var valid = new CreateProductV2DTO("Product A", null, new BigDecimal("10.00"), true, 1, 1L);
+        var invalid = new CreateProductV2DTO("", null, new BigDecimal("-1"), true, 2, 1L);
+        var unknownCategory = new CreateProductV2DTO("Product C", null, new BigDecimal("30.00"), true, 3, 99L);
+        var alsoValid = new CreateProductV2DTO("Product D", null, new BigDecimal("40.00"), true, 4, 1L);
+
+        when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            for (int i = 0; i < products.size(); i++) {
+                products.get(i).setId(100L + i);
+            }
+            return products;
+        });
+
+        var response = productService.saveAll(List.of(valid, invalid, unknownCategory, alsoValid));
+
+        assertEquals(2, response.created());
+        assertEquals(2, response.failed());
+        assertEquals(BatchProductResult.created(0, 100L), response.items().get(0));
+        assertEquals(2, response.items().get(1).errors().size());
+        assertNull(response.items().get(1).id());
+        assertEquals(BatchProductResult.failed(2, List.of("A categoria informada não existe.")), response.items().get(2));
+        assertEquals(BatchProductResult.created(3, 101L), response.items().get(3));
+        verify(categoryRepository, times(1)).findAllById(Set.of(1L, 99L));
+        verify(categoryRepository, never()).findById(any());
+        verify(productIdFilter).addAll(List.of(100L, 101L));
+        verify(productCacheEvictor).evictAll(List.of(new ProductCacheKey(100L, 1), new ProductCacheKey(101L, 4)));
+    }
+
+    @Test
+    void shouldNotInsertAnythingWhenEveryBatchItemIsInvalid() {
+        var invalid = new CreateProductV2DTO(null, null, null, null, null, null);
+        when(categoryRepository.findAllById(any())).thenReturn(List.of());
+        when(productRepository.saveAll(anyList())).thenReturn(List.of());
+
+        var response = productService.saveAll(Arrays.asList(invalid, null));
+
+        assertEquals(0, response.created());
+        assertEquals(2, response.failed());
+        assertEquals(List.of("O produto não pode ser nulo."), response.items().get(1).errors());
+        verify(productRepository).saveAll(List.of());
+    }
+
+    @Test
+    void shouldUseFilteredQueryWhenAnyFilterIsGiven() {
+        var filter = new ProductFilter(1L, true, null, null, null);
+        Page<ProductSummary> productPage = new PageImpl<>(List.of(summary), pageable, 1);
+        when(productRepository.findSummaries(filter, pageable)).thenReturn(productPage);
+
+        Page<ProductSummary> result = productService.findAll(filter, pageable);
+
+        assertEquals(productPage, result);
+        verify(productRepository, never()).findAllSummaries(any(Pageable.class));
+    }
+
+    @Test
+    void shouldUseUnfilteredSliceQueryWhenFilterIsEmpty() {
+        Slice<ProductSummary> slice = new SliceImpl<>(List.of(summary), pageable, false);
+        when(productRepository.findSummarySlice(pageable)).thenReturn(slice);
+
+        Slice<ProductSummary> result = productService.findAllSlice(new ProductFilter(null, null, null, null, " "), pageable);
+
+        assertEquals(slice, result);
+        verify(productRepository, never()).findSummarySlice(any(ProductFilter.class), any(Pageable.class));
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenMinPriceIsGreaterThanMaxPrice() {
+        var filter = new ProductFilter(null, null, new BigDecimal("100"), new BigDecimal("10"), null);
+
+        assertThrows(BusinessException.class, () -> productService.findAll(filter, pageable));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldReturnRankedProductsWithSearchCursorWhenMoreMatchesExist() {
+        ProductSummary second = new ProductSummary(2L, "Second Product", null, BigDecimal.TEN, true, 2, 1L, "Test Category", null);
+        ProductSummary third = new ProductSummary(3L, "Third Product", null, BigDecimal.TEN, true, 3, 1L, "Test Category", null);
+        when(productSearchRepository.searchFirst("product", 3)).thenReturn(List.of(
+            new ProductSearchHit(summary, 0.9f), new ProductSearchHit(second, 0.5f), new ProductSearchHit(third, 0.5f)));
+
+        CursorPage<ProductSummary> result = productService.search("product", null, 2);
+
+        assertEquals(List.of(summary, second), result.content());
+        assertEquals(new SearchCursor(0.5f, 2L), SearchCursor.decode(result.next()));
+    }
+
+    @Test
+    void shouldContinueAfterSearchCursorWhenRequestingNextSearchPage() {
+        String after = new SearchCursor(0.5f, 2L).encode();
+        when(productSearchRepository.searchAfter("product", 0.5f, 2L, 3)).thenReturn(List.of());
+
+        CursorPage<ProductSummary> result = productService.search("product", after, 2);
+
+        assertTrue(result.content().isEmpty());
+        assertFalse(result.hasNext());
+        verify(productSearchRepository, never()).searchFirst(any(), anyInt());
+    }
+
+    @Test
+    void shouldKeepSuggestionIndexCurrentWhenSavingAndDeletingProducts() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.save(new CreateProductV2DTO("Test Product", null, BigDecimal.TEN, true, 1, 1L));
+        productService.deleteById(1L);
+
+        verify(productSuggestionIndex).put(1L, "Test Product");
+        verify(productSuggestionIndex).remove(1L);
+    }
+
+    @Test
+    void shouldReturnProductWhenRequestingByCode() {
+        when(productRepository.findByCode(1)).thenReturn(Optional.of(product));
+
+        assertEquals(Optional.of(product), productService.findByCode(1));
+        verify(productRepository).findByCode(1);
+    }
+
+    @Test
+    void shouldRejectBatchItemsWhoseCodeIsAlreadyTaken() {
+        var taken = new CreateProductV2DTO("Product A", null, new BigDecimal("10.00"), true, 7, 1L);
+        var fresh = new CreateProductV2DTO("Product B", null, new BigDecimal("20.00"), true, 8, 1L);
+        var repeated = new CreateProductV2DTO("Product C", null, new BigDecimal("30.00"), true, 8, 1L);
+
+        when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
+        when(productRepository.findExistingCodes(Set.of(7, 8))).thenReturn(List.of(7));
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            products.forEach(saved -> saved.setId(100L));
+            return products;
+        });
+
+        var response = productService.saveAll(List.of(taken, fresh, repeated));
+
+        assertEquals(1, response.created());
+        assertEquals(List.of("Já existe um produto com o código 7."), response.items().get(0).errors());
+        assertEquals(BatchProductResult.created(1, 100L), response.items().get(1));
+        assertEquals(List.of("Já existe um produto com o código 8."), response.items().get(2).errors());
+    }
+
+    @Test
+    void shouldEvictProductWithPreviousAndNewCodeWhenUpdatingProductCode() {
+        UpdateProductV2DTO input = UpdateProductV2DTO.builder()
+            .name("Updated Product")
+            .price(new BigDecimal("300.00"))
+            .status(true)
+            .code(3)
+            .build();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.update(1L, input, null);
+
+        verify(productCacheEvictor).evict(1L, 1);
+        verify(productCacheEvictor).evictCode(3);
+    }
+
+    @Test
+    void shouldEvictProductByIdAndCodeWhenDeletingProduct() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        productService.deleteById(1L);
+
+        verify(productCacheEvictor).evict(1L, 1);
+        verify(productRepository).deleteById(1L);
+    }
+
+    @Test
+    void shouldLoadOnlyUncachedIdsAndKeepRequestOrderWhenLookingUpProducts() {
+        var other = product.toBuilder().id(2L).build();
+        when(productBatchCache.getAll(Set.of(2L, 1L, 3L))).thenReturn(Map.of(2L, Optional.of(other)));
+        when(productRepository.findByIdIn(List.of(1L, 3L))).thenReturn(List.of(product));
+
+        var response = productService.findAllById(List.of(2L, 1L, 3L, 2L));
+
+        assertEquals(Arrays.asList(other, product, null, other), response.products());
+        assertEquals(List.of(3L), response.notFound());
+        verify(productBatchCache).putAll(List.of(product), List.of(3L));
+    }
+
+    @Test
+    void shouldNotQueryDatabaseWhenEveryProductIsCached() {
+        when(productBatchCache.getAll(Set.of(1L))).thenReturn(Map.of(1L, Optional.of(product)));
+
+        var response = productService.findAllById(List.of(1L));
+
+        assertEquals(List.of(product), response.products());
+        assertTrue(response.notFound().isEmpty());
+        verify(productRepository, never()).findByIdIn(any());
+    }
+
+    @Test
+    void shouldNotQueryIdsCachedAsNotExistingWhenLookingUpProducts() {
+        when(productBatchCache.getAll(Set.of(1L, 404L))).thenReturn(Map.of(1L, Optional.of(product), 404L, Optional.empty()));
+
+        var response = productService.findAllById(List.of(1L, 404L));
+
+        assertEquals(Arrays.asList(product, null), response.products());
+        assertEquals(List.of(404L), response.notFound());
+        verify(productRepository, never()).findByIdIn(any());
+    }
+
+    @Test
+    void shouldNotQueryIdsRuledOutByIdFilterWhenLookingUpProducts() {
+        when(productBatchCache.getAll(Set.of(1L, 404L))).thenReturn(Map.of());
+        when(productIdFilter.mightContain(404L)).thenReturn(false);
+        when(productRepository.findByIdIn(List.of(1L))).thenReturn(List.of(product));
+
+        var response = productService.findAllById(List.of(1L, 404L));
+
+        assertEquals(Arrays.asList(product, null), response.products());
+        assertEquals(List.of(404L), response.notFound());
+    }
+
+    @Test
+    void shouldThrowBusinessExceptionWhenLookingUpNullId() {
+        assertThrows(BusinessException.class, () -> productService.findAllById(Arrays.asList(1L, null)));
+        verifyNoInteractions(productBatchCache);
+    }
+
+    @Test
+    void shouldUpdateProductWhenIfMatchHasCurrentETag() {
+        product.setVersion(4L);
+        category.setVersion(2L);
+        UpdateProductV2DTO input = UpdateProductV2DTO.builder().name("Updated Product").build();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var result = productService.update(1L, input, "\"3.2\", \"4.2\"");
+
+        assertEquals("Updated Product", result.name());
+    }
+
+    @Test
+    void shouldThrowPreconditionFailedWhenIfMatchHasStaleETag() {
+        product.setVersion(4L);
+        UpdateProductV2DTO input = UpdateProductV2DTO.builder().name("Updated Product").build();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThrows(PreconditionFailedException.class, () -> productService.update(1L, input, "\"3.0\""));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void shouldReturnChangesFromStartWithCursorOfLastChangeWhenMoreAreWaiting() {
+        var first = new ProductChange(ProductChange.Type.UPSERT, 1L, summary, null, new ChangeCursor(700, 1));
+        var second = new ProductChange(ProductChange.Type.DELETE, 2L, null, null, new ChangeCursor(701, 2));
+        var third = new ProductChange(ProductChange.Type.UPSERT, 3L, summary, null, new ChangeCursor(702, 3));
+        when(productChangeRepository.findAfter(ChangeCursor.START, 3)).thenReturn(List.of(first, second, third));
+
+        var response = productService.findChanges(null, 2);
+
+        assertEquals(List.of(first, second), response.changes());
+        assertTrue(response.hasMore());
+        assertEquals(new ChangeCursor(701, 2), ChangeCursor.decode(response.next()));
+    }
+
+    @Test
+    void shouldKeepCursorWhenNothingChanged() {
+        var since = new ChangeCursor(701, 2);
+        when(productChangeRepository.findAfter(since, 11)).thenReturn(List.of());
+
+        var response = productService.findChanges(since.encode(), 10);
+
+        assertTrue(response.changes().isEmpty());
+        assertFalse(response.hasMore());
+        assertEquals(since.encode(), response.next());
+    }
+
+    @Test
+    void shouldPublishDeletedEventOnlyWhenProductExisted() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findById(2L)).thenReturn(Optional.empty());
+
+        productService.deleteById(1L);
+        productService.deleteById(2L);
+
+        verify(catalogEventPublisher).publish(CatalogEvent.Entity.PRODUCT, CatalogEvent.Type.DELETED, 1L);
+        verifyNoMoreInteractions(catalogEventPublisher);
+    }
+}
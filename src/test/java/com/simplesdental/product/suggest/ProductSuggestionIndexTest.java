@@ -0,0 +1,76 @@
+package com.simplesdental.product.suggest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.simplesdental.product.repository.ProductRepository;
+import com.simplesdental.product.repository.projection.ProductName;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestionIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAllNames()).thenReturn(List.of(
+            new ProductName(1L, "Cadeira Ergonômica"),
+            new ProductName(2L, "Mesa de Escritório"),
+            new ProductName(3L, "Cadeira Gamer")));
+        index.rebuild();
+    }
+
+    @Test
+    void shouldSuggestByPrefixOfAnyWordIgnoringCaseAndAccents() {
+        assertEquals(List.of(new ProductSuggestion(1L, "Cadeira Ergonômica"), new ProductSuggestion(3L, "Cadeira Gamer")),
+            index.suggest("CAD", 10));
+        assertEquals(List.of(new ProductSuggestion(1L, "Cadeira Ergonômica")), index.suggest("ergono", 10));
+        assertEquals(List.of(new ProductSuggestion(2L, "Mesa de Escritório")), index.suggest("escritó", 10));
+        assertEquals(List.of(new ProductSuggestion(1L, "Cadeira Ergonômica")), index.suggest("cadeira  e", 10));
+    }
+
+    @Test
+    void shouldLimitSuggestionsAndIgnoreBlankQuery() {
+        assertEquals(1, index.suggest("cadeira", 1).size());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+        assertTrue(index.suggest("x", 10).isEmpty());
+    }
+
+    @Test
+    void shouldReplaceOldNameWhenProductIsRenamedAndDropRemovedProducts() {
+        index.put(3L, "Poltrona Gamer");
+        index.remove(2L);
+
+        assertEquals(List.of(new ProductSuggestion(1L, "Cadeira Ergonômica")), index.suggest("cadeira", 10));
+        assertEquals(List.of(new ProductSuggestion(3L, "Poltrona Gamer")), index.suggest("gam", 10));
+        assertTrue(index.suggest("mesa", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void shouldApplyChangesOnlyAfterTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.put(4L, "Armário");
+
+            assertTrue(index.suggest("arm", 10).isEmpty());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(List.of(new ProductSuggestion(4L, "Armário")), index.suggest("arm", 10));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}